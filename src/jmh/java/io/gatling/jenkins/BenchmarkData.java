@@ -0,0 +1,74 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Synthetic inputs of the benchmarks, shaped like the assertions of the load
+ * tests of our own jobs. Only the assertion types the Graphite links know of
+ * are used.
+ */
+public final class BenchmarkData {
+
+    private static final String[] ASSERTION_TYPES = {"50th percentile of response time", "95th percentile of response time",
+            "99th percentile of response time", "mean of response time", "max of response time",
+            "standard deviation of response time", "mean requests per second"};
+
+    private static final String[] CONDITIONS = {"is less than", "is greater than", "is in", "is equal to"};
+
+    private BenchmarkData() {}
+
+    /**
+     * @return the assertions of a simulation, a quarter of them failed
+     */
+    public static List<AssertionData> assertions(int count, String projectName) {
+        List<AssertionData> assertions = new ArrayList<AssertionData>(count);
+        for (int i = 0; i < count; i++) {
+            AssertionData assertion = new AssertionData();
+            assertion.projectName = projectName;
+            assertion.simulationName = "computerdatabase.advanced.AdvancedSimulationStep" + (i % 5);
+            assertion.scenarioName = "Users";
+            assertion.requestName = "request " + i + " / page " + (i % 7);
+            assertion.assertionType = ASSERTION_TYPES[i % ASSERTION_TYPES.length];
+            assertion.message = assertion.requestName + ": " + assertion.assertionType + " " + CONDITIONS[i % CONDITIONS.length] + " " + (100 + i);
+            assertion.status = i % 4 != 0;
+            assertion.conditionValues = new ArrayList<Integer>(Arrays.asList(100 + i));
+            assertion.values = new ArrayList<Integer>(Arrays.asList(90 + i));
+            assertion.expectedValue = String.valueOf(100 + i);
+            assertion.actualValue = String.valueOf(90 + i);
+            assertions.add(assertion);
+        }
+        return assertions;
+    }
+
+    /**
+     * @return job names as parsed by the target environment graphs, for both brands
+     */
+    public static List<String> projectNames(int count) {
+        List<String> names = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            if (i % 3 == 0) {
+                names.add("Web_Performance_Tests-TP-kappa" + i + "-tpweb_CheckoutSimulation" + i);
+            } else {
+                names.add("Web_Performance_Tests-kappa" + i + "-apiserver_OAuth2ForApi2Simulation" + i);
+            }
+        }
+        return names;
+    }
+}
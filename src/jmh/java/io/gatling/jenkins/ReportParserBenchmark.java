@@ -0,0 +1,190 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hudson.FilePath;
+import hudson.Util;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link ReportParser} with the previous parsing code, which built a new
+ * {@link ObjectMapper} for every file it read, on the report of a simulation with
+ * 5,000 distinct requests.
+ *
+ * Run with {@code mvn -P benchmarks -DskipTests verify}; the allocation rates are
+ * reported by the GC profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ReportParserBenchmark {
+
+    private static final int REQUESTS = 5000;
+
+    private File root;
+    private File report;
+    private File statsOnlyReport;
+
+    @Setup(Level.Trial)
+    public void createReports() throws IOException {
+        root = Files.createTempDirectory("gatling-benchmark").toFile();
+        report = new File(root, "mysimulation-1");
+        write(new File(report, ReportParser.GLOBAL_STATS_PATH), statistics("Global Information"));
+        write(new File(report, ReportParser.ASSERTIONS_PATH), assertions());
+        write(new File(report, ReportParser.STATS_PATH), statsFile());
+        statsOnlyReport = new File(root, "mysimulation-2");
+        write(new File(statsOnlyReport, ReportParser.STATS_PATH), statsFile());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteReports() throws IOException {
+        Util.deleteRecursive(root);
+    }
+
+    @Benchmark
+    public RequestReport globalStatsWithNewMapper() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return mapper.readValue(new File(report, ReportParser.GLOBAL_STATS_PATH), new TypeReference<RequestReport>() {
+        });
+    }
+
+    @Benchmark
+    public RequestReport globalStatsWithSharedReader() throws IOException {
+        return ReportParser.readGlobalStats(report);
+    }
+
+    @Benchmark
+    public RequestReport simulationReport() throws IOException, InterruptedException {
+        SimulationReport simulationReport = new SimulationReport(new FilePath(report), "mysimulation-1");
+        simulationReport.readStatsFile();
+        return simulationReport.getGlobalReport();
+    }
+
+    @Benchmark
+    public AssertionsData assertionsWithNewMapper() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return mapper.readValue(new File(report, ReportParser.ASSERTIONS_PATH), new TypeReference<AssertionsData>() {
+        });
+    }
+
+    @Benchmark
+    public AssertionsData assertionsWithSharedReader() throws IOException {
+        return ReportParser.readAssertions(report);
+    }
+
+    /**
+     * Binds the whole stats.json document to get its global section.
+     */
+    @Benchmark
+    public Object statsFileWithTreeBinding() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Object> stats = mapper.readValue(new File(report, ReportParser.STATS_PATH), new TypeReference<Map<String, Object>>() {
+        });
+        return mapper.convertValue(stats.get("stats"), RequestReport.class);
+    }
+
+    @Benchmark
+    public RequestReport statsFileWithStreaming() throws IOException {
+        InputStream in = new FileInputStream(new File(statsOnlyReport, ReportParser.STATS_PATH));
+        try {
+            return ReportParser.readGlobalStatsFromStats(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static String statsFile() {
+        StringBuilder json = new StringBuilder("{\"type\":\"GROUP\",\"name\":\"Global Information\",\"path\":\"\",\"contents\":{");
+        for (int i = 0; i < REQUESTS; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("\"req_request-").append(i).append("\":{\"type\":\"REQUEST\",\"name\":\"request ").append(i)
+                    .append("\",\"path\":\"request ").append(i).append("\",\"stats\":").append(statistics("request " + i)).append('}');
+        }
+        return json.append("},\"stats\":").append(statistics("Global Information")).append('}').toString();
+    }
+
+    private static String statistics(String name) {
+        StringBuilder json = new StringBuilder("{\"name\":\"").append(name).append('"');
+        String[] metrics = {"numberOfRequests", "minResponseTime", "maxResponseTime", "meanResponseTime",
+                "standardDeviation", "percentiles1", "percentiles2", "percentiles3", "percentiles4",
+                "meanNumberOfRequestsPerSecond"};
+        for (int i = 0; i < metrics.length; i++) {
+            json.append(",\"").append(metrics[i]).append("\":{\"total\":").append(100 + i)
+                    .append(",\"ok\":").append(90 + i).append(",\"ko\":").append(10 + i).append('}');
+        }
+        String[] groups = {"t < 800 ms", "800 ms < t < 1200 ms", "t > 1200 ms", "failed"};
+        for (int i = 0; i < groups.length; i++) {
+            json.append(",\"group").append(i + 1).append("\":{\"name\":\"").append(groups[i])
+                    .append("\",\"count\":").append(25).append(",\"percentage\":").append(25).append('}');
+        }
+        return json.append('}').toString();
+    }
+
+    private static String assertions() {
+        StringBuilder json = new StringBuilder("{\"simulation\":\"MySimulation\",\"simulationId\":\"mysimulation-1\",\"assertions\":[");
+        for (int i = 0; i < 100; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"path\":\"request ").append(i).append("\",\"target\":\"mean response time\",\"condition\":\"less than\",")
+                    .append("\"expectedValues\":[100],\"result\":true,\"message\":\"request ").append(i)
+                    .append(": mean response time is less than 100\",\"conditionValues\":[100],\"values\":[42]}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static void write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
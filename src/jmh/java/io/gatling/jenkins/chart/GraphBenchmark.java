@@ -0,0 +1,85 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.chart;
+
+import io.gatling.jenkins.trend.TrendRecord;
+import io.gatling.jenkins.trend.TrendRecords;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static io.gatling.jenkins.PluginConstants.MAX_POINTS_TO_DISPLAY;
+
+/**
+ * Builds the trend charts of a job page from an in-memory history of 20
+ * simulations per build: the dataset is split by simulation, then each
+ * {@link Graph} extracts, downsamples and serializes its series, as on a
+ * page render after a build completed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+
+    private static final int SIMULATIONS = 20;
+
+    @Param({"100", "1000", "5000"})
+    public int builds;
+
+    private List<TrendRecord> records;
+    private TrendDataset dataset;
+
+    @Setup(Level.Trial)
+    public void createHistory() {
+        records = TrendRecords.history(builds, SIMULATIONS);
+        dataset = new TrendDataset("1", records, 0);
+    }
+
+    @Benchmark
+    public TrendDataset dataset() {
+        return new TrendDataset("1", records, 0);
+    }
+
+    @Benchmark
+    public String meanSeriesJSON() {
+        return Graph.forMetric(dataset, ChartMetric.MEAN, MAX_POINTS_TO_DISPLAY).getSeriesJSON();
+    }
+
+    @Benchmark
+    public String percentile95SeriesJSON() {
+        return Graph.forMetric(dataset, ChartMetric.PERCENTILE_3, MAX_POINTS_TO_DISPLAY).getSeriesJSON();
+    }
+
+    @Benchmark
+    public String fullSeriesJSON() {
+        return Graph.forMetric(dataset, ChartMetric.MEAN, 0).getSeriesJSON();
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.targetenvgraphs;
+
+import io.gatling.jenkins.AssertionData;
+import io.gatling.jenkins.BenchmarkData;
+import io.gatling.jenkins.targetenvgraphs.envgraphs.graphite.TrendGraphBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the Graphite links of the assertions of a build and parses the job
+ * names they are built from, as the project page does for the last build
+ * with assertions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TargetEnvGraphsBenchmark {
+
+    private static final int ASSERTIONS = 100;
+
+    private TrendGraphBuilder trendGraphBuilder;
+    private List<AssertionData> assertions;
+    private List<String> projectNames;
+    private Date fromDate;
+
+    @Setup(Level.Trial)
+    public void createAssertions() {
+        trendGraphBuilder = new TrendGraphBuilder();
+        assertions = BenchmarkData.assertions(ASSERTIONS, "Web_Performance_Tests-kappa-apiserver_OAuth2ForApi2Simulation");
+        projectNames = BenchmarkData.projectNames(ASSERTIONS);
+        fromDate = new Date(1500000000000L);
+    }
+
+    @Benchmark
+    public void graphiteUrlsForAssertions(Blackhole blackhole) {
+        for (AssertionData assertion : assertions) {
+            blackhole.consume(trendGraphBuilder.getGraphiteUrlForAssertion(fromDate, assertion));
+        }
+    }
+
+    @Benchmark
+    public void parseProjectNames(Blackhole blackhole) {
+        for (String projectName : projectNames) {
+            ProjectNameParser parser = new ProjectNameParser(projectName);
+            blackhole.consume(parser.getBrand());
+            blackhole.consume(parser.getEnv());
+            blackhole.consume(parser.getPool());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.trend;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic trend histories for the benchmarks, built without a job.
+ */
+public final class TrendRecords {
+
+    private TrendRecords() {}
+
+    /**
+     * @return the records of the given number of builds with the given number
+     * of simulations each, oldest build first like the records of the index
+     */
+    public static List<TrendRecord> history(int builds, int simulations) {
+        int metrics = TrendMetric.values().length;
+        List<TrendRecord> records = new ArrayList<TrendRecord>(builds * simulations);
+        for (int build = 1; build <= builds; build++) {
+            for (int sim = 0; sim < simulations; sim++) {
+                long[] values = new long[metrics];
+                for (int i = 0; i < metrics; i++) {
+                    // a slowly drifting value with some noise, so that downsampling has work to do
+                    values[i] = 100 + 10 * i + build / 10 + (build * 31 + sim * 17 + i * 7) % 50;
+                }
+                records.add(new TrendRecord(build, build * 60000L, "Simulation" + sim, values));
+            }
+        }
+        return records;
+    }
+}
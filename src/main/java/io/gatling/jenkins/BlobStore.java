@@ -0,0 +1,228 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import hudson.Util;
+import hudson.model.Job;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.FileOutputStream;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+/**
+ * A content-addressed store for the files of the archived reports of a job.
+ *
+ * Each distinct file content is stored once, under its SHA-1 hash, no matter
+ * how many builds archived it. The number of {@link ReportManifest}s referencing
+ * each blob is tracked in a {@code refcounts} file, so that blobs can be
+ * deleted along with the last build using them.
+ */
+public class BlobStore {
+
+    static final String DIRECTORY_NAME = "gatling-blobs";
+    private static final String REFCOUNTS_FILE_NAME = "refcounts";
+    private static final String HASH_ALGORITHM = "SHA-1";
+
+    // one instance per store directory, used as the lock of its reference counts
+    private static final Map<File, WeakReference<File>> ROOTS = new WeakHashMap<File, WeakReference<File>>();
+
+    private final File root;
+
+    public BlobStore(File root) {
+        this.root = intern(root);
+    }
+
+    /**
+     * @return the instance shared by all the stores of the directory, as long as one of them is in use
+     */
+    private static File intern(File root) {
+        File absoluteRoot = root.getAbsoluteFile();
+        synchronized (ROOTS) {
+            WeakReference<File> interned = ROOTS.get(absoluteRoot);
+            File instance = interned != null ? interned.get() : null;
+            if (instance == null) {
+                instance = absoluteRoot;
+                ROOTS.put(instance, new WeakReference<File>(instance));
+            }
+            return instance;
+        }
+    }
+
+    public static BlobStore forJob(Job<?, ?> job) {
+        return new BlobStore(new File(job.getRootDir(), DIRECTORY_NAME));
+    }
+
+    /**
+     * Copies files into the store, unless their content is already stored, and
+     * records that one more manifest references each of them. The files are
+     * left in place, and the store is left as it was if this fails.
+     *
+     * @return the hashes of the files content, in the same order as the files
+     */
+    public List<String> add(List<File> files) throws IOException {
+        List<String> hashes = new ArrayList<String>(files.size());
+        for (File file : files) {
+            hashes.add(hash(file));
+        }
+        synchronized (root) {
+            Map<String, Integer> refCounts = readRefCounts();
+            List<File> created = new ArrayList<File>();
+            boolean added = false;
+            try {
+                for (int i = 0; i < files.size(); i++) {
+                    String hash = hashes.get(i);
+                    File blob = get(hash);
+                    if (!blob.exists()) {
+                        copyToBlob(files.get(i), blob);
+                        created.add(blob);
+                    }
+                    Integer refCount = refCounts.get(hash);
+                    refCounts.put(hash, refCount == null ? 1 : refCount + 1);
+                }
+                writeRefCounts(refCounts);
+                added = true;
+            } finally {
+                if (!added) {
+                    // nothing references them
+                    for (File blob : created) {
+                        blob.delete();
+                    }
+                }
+            }
+        }
+        return hashes;
+    }
+
+    /**
+     * @return the file holding the content with the given hash, which may not exist
+     */
+    public File get(String hash) {
+        return new File(new File(root, hash.substring(0, 2)), hash.substring(2));
+    }
+
+    /**
+     * Records that a manifest referencing the given blobs is gone, deleting
+     * the blobs that are no longer referenced at all.
+     */
+    public void release(Collection<String> hashes) throws IOException {
+        synchronized (root) {
+            Map<String, Integer> refCounts = readRefCounts();
+            for (String hash : hashes) {
+                Integer refCount = refCounts.get(hash);
+                if (refCount == null || refCount <= 1) {
+                    refCounts.remove(hash);
+                    File blob = get(hash);
+                    if (blob.exists()) {
+                        Files.delete(blob.toPath());
+                    }
+                } else {
+                    refCounts.put(hash, refCount - 1);
+                }
+            }
+            writeRefCounts(refCounts);
+        }
+    }
+
+    void copyToBlob(File file, File blob) throws IOException {
+        File blobDirectory = blob.getParentFile();
+        if (!blobDirectory.isDirectory() && !blobDirectory.mkdirs()) {
+            throw new IOException("Could not create blob directory '" + blobDirectory + "'");
+        }
+        // a blob is either missing or complete
+        File tmp = new File(blobDirectory, blob.getName() + ".tmp");
+        Files.copy(file.toPath(), tmp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Files.move(tmp.toPath(), blob.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Map<String, Integer> readRefCounts() throws IOException {
+        Map<String, Integer> refCounts = new TreeMap<String, Integer>();
+        File file = new File(root, REFCOUNTS_FILE_NAME);
+        if (!file.exists()) {
+            return refCounts;
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(' ');
+                if (separator > 0) {
+                    refCounts.put(line.substring(0, separator), Integer.valueOf(line.substring(separator + 1)));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return refCounts;
+    }
+
+    private void writeRefCounts(Map<String, Integer> refCounts) throws IOException {
+        if (!root.isDirectory() && !root.mkdirs()) {
+            throw new IOException("Could not create blob store directory '" + root + "'");
+        }
+        File file = new File(root, REFCOUNTS_FILE_NAME);
+        File tmp = new File(root, REFCOUNTS_FILE_NAME + ".tmp");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), "UTF-8"));
+        try {
+            for (Map.Entry<String, Integer> refCount : refCounts.entrySet()) {
+                writer.write(refCount.getKey());
+                writer.write(' ');
+                writer.write(refCount.getValue().toString());
+                writer.write('\n');
+            }
+        } finally {
+            writer.close();
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static String hash(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+        return Util.toHexString(digest.digest());
+    }
+}
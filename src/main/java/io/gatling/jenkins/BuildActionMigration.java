@@ -0,0 +1,203 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Rewrites the {@link GatlingBuildAction}s saved by older versions, whose
+ * payload is still in build.xml, so that it is moved to the sidecar file
+ * and build.xml no longer goes through the legacy fields when it is loaded.
+ *
+ * The jobs are migrated in parallel by a bounded number of threads, each
+ * pausing between builds so that the migration doesn't take the disk from
+ * the running builds. Only the builds whose build.xml may hold a legacy
+ * action are loaded.
+ */
+public final class BuildActionMigration {
+
+    private static final Logger LOGGER = Logger.getLogger(BuildActionMigration.class.getName());
+
+    private static final String ACTION_ELEMENT = "<" + GatlingBuildAction.class.getName();
+    private static final String[] LEGACY_ELEMENTS = {"<simulations>", "<assertionDataList>", "<requestReport>"};
+
+    private final List<? extends Job<?, ?>> jobs;
+    private final int threads;
+    private final long pause;
+
+    private final AtomicInteger jobsDone = new AtomicInteger();
+    private final AtomicInteger buildsMigrated = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private ExecutorService executor;
+
+    /**
+     * @param pause the pause between two builds migrated by the same thread, in milliseconds
+     */
+    BuildActionMigration(List<? extends Job<?, ?>> jobs, int threads, long pause) {
+        this.jobs = jobs;
+        this.threads = threads;
+        this.pause = pause;
+    }
+
+    synchronized void start() {
+        if (executor != null) {
+            throw new IllegalStateException("The migration was already started");
+        }
+        executor = Executors.newFixedThreadPool(threads,
+                new NamingThreadFactory(new DaemonThreadFactory(), "Gatling build action migration"));
+        for (final Job<?, ?> job : jobs) {
+            executor.submit(new Runnable() {
+                public void run() {
+                    try {
+                        migrate(job);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                        LOGGER.log(Level.WARNING, "Failed to migrate the Gatling builds of " + job.getFullName(), e);
+                    } finally {
+                        jobsDone.incrementAndGet();
+                    }
+                }
+            });
+        }
+        // the submitted jobs are still migrated, the threads stop once they are done
+        executor.shutdown();
+    }
+
+    public synchronized boolean isRunning() {
+        return executor != null && !executor.isTerminated();
+    }
+
+    public int getJobCount() {
+        return jobs.size();
+    }
+
+    public int getJobsDone() {
+        return jobsDone.get();
+    }
+
+    public int getBuildsMigrated() {
+        return buildsMigrated.get();
+    }
+
+    public int getFailures() {
+        return failures.get();
+    }
+
+    private void migrate(Job<?, ?> job) throws InterruptedException {
+        for (int number : getCandidateBuildNumbers(job.getBuildDir())) {
+            Run<?, ?> run = job.getBuildByNumber(number);
+            if (run == null || run.isBuilding()) {
+                continue;
+            }
+            GatlingBuildAction action = run.getAction(GatlingBuildAction.class);
+            try {
+                if (action != null && action.migrate()) {
+                    run.save();
+                    buildsMigrated.incrementAndGet();
+                }
+            } catch (IOException e) {
+                failures.incrementAndGet();
+                LOGGER.log(Level.WARNING, "Failed to migrate the Gatling reports of " + run, e);
+            }
+            if (pause > 0) {
+                Thread.sleep(pause);
+            }
+        }
+    }
+
+    /**
+     * @return the numbers of the builds of a build directory whose build.xml may hold a legacy action, in ascending order
+     */
+    static List<Integer> getCandidateBuildNumbers(File buildDir) {
+        List<Integer> numbers = new ArrayList<Integer>();
+        File[] buildDirs = buildDir != null ? buildDir.listFiles() : null;
+        if (buildDirs == null) {
+            return numbers;
+        }
+        for (File dir : buildDirs) {
+            int number;
+            try {
+                number = Integer.parseInt(dir.getName());
+            } catch (NumberFormatException e) {
+                // the ids of the builds, links to the numbered directories in older versions of Jenkins
+                continue;
+            }
+            try {
+                if (mayHoldLegacyAction(new File(dir, "build.xml"))) {
+                    numbers.add(number);
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Failed to read " + dir, e);
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    /**
+     * Looks for the elements of the legacy actions, without parsing build.xml.
+     * Elements of the same names in the actions of other plugins only cause
+     * the build to be loaded for nothing.
+     */
+    static boolean mayHoldLegacyAction(File buildXml) throws IOException {
+        if (!buildXml.isFile()) {
+            return false;
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(buildXml), StandardCharsets.UTF_8));
+        try {
+            boolean action = false;
+            boolean legacy = false;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                action |= line.contains(ACTION_ELEMENT);
+                if (!legacy) {
+                    for (String element : LEGACY_ELEMENTS) {
+                        if (line.contains(element)) {
+                            legacy = true;
+                            break;
+                        }
+                    }
+                }
+                if (action && legacy) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            reader.close();
+        }
+    }
+}
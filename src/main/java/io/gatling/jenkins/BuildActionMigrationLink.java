@@ -0,0 +1,94 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import hudson.Extension;
+import hudson.model.Job;
+import hudson.model.ManagementLink;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+import java.util.List;
+
+import static io.gatling.jenkins.PluginConstants.DEFAULT_MIGRATION_PAUSE;
+import static io.gatling.jenkins.PluginConstants.DEFAULT_MIGRATION_THREADS;
+import static io.gatling.jenkins.PluginConstants.ICON_URL;
+
+/**
+ * The "Manage Jenkins" page starting the {@link BuildActionMigration} of all
+ * the jobs and showing its progress.
+ */
+@Extension
+public class BuildActionMigrationLink extends ManagementLink {
+
+    private volatile BuildActionMigration migration;
+
+    @Override
+    public String getIconFileName() {
+        return ICON_URL;
+    }
+
+    @Override
+    public String getUrlName() {
+        return "gatling-migration";
+    }
+
+    public String getDisplayName() {
+        return Messages.BuildActionMigration_DisplayName();
+    }
+
+    @Override
+    public String getDescription() {
+        return Messages.BuildActionMigration_Description();
+    }
+
+    /**
+     * @return the last migration started since Jenkins started, or null if there is none
+     */
+    public BuildActionMigration getMigration() {
+        return migration;
+    }
+
+    public int getDefaultThreads() {
+        return DEFAULT_MIGRATION_THREADS;
+    }
+
+    public int getDefaultPause() {
+        return DEFAULT_MIGRATION_PAUSE;
+    }
+
+    /**
+     * Starts migrating the builds of all the jobs, unless a migration is running.
+     *
+     * @param threads the number of jobs migrated in parallel, 0 for the default
+     * @param pause the pause between two builds migrated by the same thread, in milliseconds
+     */
+    @RequirePOST
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public synchronized HttpResponse doStart(@QueryParameter int threads, @QueryParameter int pause) {
+        Jenkins jenkins = Jenkins.getInstance();
+        jenkins.checkPermission(Jenkins.ADMINISTER);
+        if (migration == null || !migration.isRunning()) {
+            List<Job<?, ?>> jobs = (List) jenkins.getAllItems(Job.class);
+            migration = new BuildActionMigration(jobs, threads > 0 ? threads : DEFAULT_MIGRATION_THREADS, Math.max(pause, 0));
+            migration.start();
+        }
+        return HttpResponses.redirectToDot();
+    }
+}
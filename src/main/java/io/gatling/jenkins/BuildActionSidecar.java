@@ -0,0 +1,116 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The payload of a {@link GatlingBuildAction}, the global statistics of its
+ * simulations and its assertions, kept next to build.xml in a compressed JSON
+ * file so that loading a build doesn't load them.
+ *
+ * The Jackson annotations of the report classes describe the Gatling report
+ * files, not this file, and are ignored: the assertions keep the values the
+ * publisher filled in.
+ */
+final class BuildActionSidecar {
+
+    static final String FILE_NAME = "gatling-build-action.json.gz";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(MapperFeature.USE_ANNOTATIONS, false)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private BuildActionSidecar() {}
+
+    static class Payload {
+        public List<SimulationPayload> simulations = new ArrayList<SimulationPayload>();
+        public List<AssertionData> assertions = new ArrayList<AssertionData>();
+    }
+
+    static class SimulationPayload {
+        public String simulationName;
+        public RequestReport requestReport;
+    }
+
+    static File getFile(File rootDir) {
+        return new File(rootDir, FILE_NAME);
+    }
+
+    static Payload payload(List<BuildSimulation> simulations, List<AssertionData> assertions) {
+        Payload payload = new Payload();
+        for (BuildSimulation sim : simulations) {
+            SimulationPayload simulation = new SimulationPayload();
+            simulation.simulationName = sim.getSimulationName();
+            simulation.requestReport = sim.getRequestReport();
+            payload.simulations.add(simulation);
+        }
+        if (assertions != null) {
+            payload.assertions.addAll(assertions);
+        }
+        return payload;
+    }
+
+    /**
+     * @return the payload as written, to be kept by the action that wrote it
+     */
+    static Payload write(File rootDir, List<BuildSimulation> simulations, List<AssertionData> assertions) throws IOException {
+        Payload payload = payload(simulations, assertions);
+        File file = getFile(rootDir);
+        File tmp = new File(rootDir, FILE_NAME + ".tmp");
+        OutputStream out = new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        try {
+            MAPPER.writeValue(out, payload);
+        } finally {
+            out.close();
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return payload;
+    }
+
+    /**
+     * @return the payload of a build, or null if the build has no sidecar file
+     */
+    static Payload read(File rootDir) throws IOException {
+        File file = getFile(rootDir);
+        if (!file.isFile()) {
+            return null;
+        }
+        InputStream in = new GZIPInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            return MAPPER.readValue(in, Payload.class);
+        } finally {
+            in.close();
+        }
+    }
+}
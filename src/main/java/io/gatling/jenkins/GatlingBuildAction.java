@@ -23,9 +23,15 @@ import hudson.model.Run;
 import io.gatling.jenkins.targetenvgraphs.envgraphs.graphite.GrafanaUrl;
 import jenkins.tasks.SimpleBuildStep;
 
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import static io.gatling.jenkins.PluginConstants.*;
 
@@ -42,18 +48,32 @@ import static io.gatling.jenkins.PluginConstants.*;
   * of time what actions will be triggered, and will never call the Publisher.getProjectAction
   * method.  Attaching it as a LastBuildAction means that it is discoverable once
   * the Pipeline job has been run once.
+  *
+  * Only the {@link SimulationHeader}s of the simulations are kept in build.xml,
+  * the global statistics and the assertions are kept in a {@link BuildActionSidecar}
+  * file and only loaded when they are used. Actions saved by older versions
+  * still have them in build.xml.
   */
 
 public class GatlingBuildAction implements Action, SimpleBuildStep.LastBuildAction{
 
+	private static final Logger LOGGER = Logger.getLogger(GatlingBuildAction.class.getName());
+
 	private final Run<?, ?> run;
-	private final List<BuildSimulation> simulations;
-    private final List<AssertionData> assertionDataList;
+	private volatile List<SimulationHeader> headers;
+
+	// only set for actions saved in build.xml by older versions, until they are migrated
+	private volatile List<BuildSimulation> simulations;
+	private volatile List<AssertionData> assertionDataList;
+
+	private transient SoftReference<BuildActionSidecar.Payload> payload;
+	// the payload of an action that wasn't written to the sidecar file
+	private transient BuildActionSidecar.Payload unsavedPayload;
 
 	// New Properties and methods are added to be able to read GatlingBuildAction object generated by version 1.0.1 or earlier.
-	private final String simulationName = null;
-	private final RequestReport requestReport = null;
-	private final FilePath simulationDirectory = null;
+	private String simulationName;
+	private RequestReport requestReport;
+	private FilePath simulationDirectory;
 
 	public String getSimulationName() {
 		return simulationName;
@@ -67,18 +87,130 @@ public class GatlingBuildAction implements Action, SimpleBuildStep.LastBuildActi
 		return simulationDirectory;
 	}
 
+	/**
+	 * Keeps the statistics and the assertions of the simulations in memory
+	 * only, see {@link #create} to keep them in the sidecar file of the build.
+	 */
 	public GatlingBuildAction(Run<?, ?> run, List<BuildSimulation> sims, List<AssertionData> assertionDataList) {
 		this.run = run;
-		this.simulations = sims;
-		this.assertionDataList = assertionDataList;
+		this.headers = SimulationHeader.of(sims);
+		this.unsavedPayload = BuildActionSidecar.payload(sims, assertionDataList);
+	}
+
+	private GatlingBuildAction(Run<?, ?> run, List<SimulationHeader> headers, BuildActionSidecar.Payload payload) {
+		this.run = run;
+		this.headers = headers;
+		this.payload = new SoftReference<BuildActionSidecar.Payload>(payload);
+	}
+
+	/**
+	 * Writes the statistics and the assertions of the simulations in the
+	 * sidecar file of the build.
+	 *
+	 * @return the action of the build, which reads them back from the sidecar file when needed
+	 */
+	public static GatlingBuildAction create(Run<?, ?> run, List<BuildSimulation> sims, List<AssertionData> assertionDataList)
+			throws IOException {
+		BuildActionSidecar.Payload written = BuildActionSidecar.write(run.getRootDir(), sims, assertionDataList);
+		return new GatlingBuildAction(run, SimulationHeader.of(sims), written);
+	}
+
+	private Object readResolve() {
+		if (simulations == null && simulationName != null) {
+			simulations = Collections.singletonList(new BuildSimulation(simulationName, requestReport, simulationDirectory));
+		}
+		if (headers == null) {
+			headers = simulations != null ? SimulationHeader.of(simulations) : new ArrayList<SimulationHeader>();
+		}
+		return this;
+	}
+
+	/**
+	 * @return whether the payload of this action is kept in build.xml, as saved by older versions
+	 */
+	synchronized boolean isLegacy() {
+		return simulations != null || assertionDataList != null || simulationName != null;
+	}
+
+	/**
+	 * Moves the payload of an action saved by an older version to the sidecar
+	 * file. The build has to be saved afterwards for build.xml to lose it.
+	 *
+	 * @return whether the action changed
+	 */
+	synchronized boolean migrate() throws IOException {
+		if (!isLegacy()) {
+			return false;
+		}
+		List<BuildSimulation> sims = simulations != null ? simulations : Collections.<BuildSimulation>emptyList();
+		payload = new SoftReference<BuildActionSidecar.Payload>(
+				BuildActionSidecar.write(run.getRootDir(), sims, assertionDataList));
+		headers = SimulationHeader.of(sims);
+		simulations = null;
+		assertionDataList = null;
+		simulationName = null;
+		requestReport = null;
+		simulationDirectory = null;
+		return true;
 	}
 
 	public Run<?, ?> getRun() {
 		return run;
 	}
 
+	/**
+	 * @return the names and the trend values of the simulations, which don't need the sidecar file
+	 */
+	public List<SimulationHeader> getSimulationHeaders() {
+		return headers;
+	}
+
+	/**
+	 * @return the simulations with their global statistics, which are read from the
+	 * sidecar file; if it can't be read the simulations don't have statistics
+	 */
 	public List<BuildSimulation> getSimulations() {
-		return simulations;
+		List<BuildSimulation> legacySimulations = simulations;
+		if (legacySimulations != null) {
+			return legacySimulations;
+		}
+		List<SimulationHeader> headers = this.headers;
+		BuildActionSidecar.Payload loaded = getPayload();
+		List<BuildSimulation> sims = new ArrayList<BuildSimulation>(headers.size());
+		for (int i = 0; i < headers.size(); i++) {
+			RequestReport report = null;
+			if (loaded != null && i < loaded.simulations.size()) {
+				report = loaded.simulations.get(i).requestReport;
+			}
+			sims.add(toSimulation(headers.get(i), report));
+		}
+		return sims;
+	}
+
+	private BuildSimulation toSimulation(SimulationHeader header, RequestReport report) {
+		FilePath directory = null;
+		if (header.getDirectoryName() != null) {
+			directory = new FilePath(new File(new File(run.getRootDir(), "simulations"), header.getDirectoryName()));
+		}
+		return new BuildSimulation(header.getSimulationName(), report, directory);
+	}
+
+	private synchronized BuildActionSidecar.Payload getPayload() {
+		if (unsavedPayload != null) {
+			return unsavedPayload;
+		}
+		BuildActionSidecar.Payload loaded = payload != null ? payload.get() : null;
+		if (loaded == null) {
+			try {
+				loaded = BuildActionSidecar.read(run.getRootDir());
+			} catch (IOException e) {
+				LOGGER.log(Level.WARNING, "Failed to read the Gatling reports of " + run, e);
+			}
+			if (loaded != null) {
+				payload = new SoftReference<BuildActionSidecar.Payload>(loaded);
+			}
+		}
+		return loaded;
 	}
 
 	public String getIconFileName() {return ICON_URL;}
@@ -126,24 +258,36 @@ public class GatlingBuildAction implements Action, SimpleBuildStep.LastBuildActi
     }
 
 	private BuildSimulation getSimulation(String simulationName) {
-		// this isn't the most efficient implementation in the world :)
-		for (BuildSimulation sim : this.getSimulations()) {
-			if (sim.getSimulationName().equals(simulationName)) {
-		        return sim;
-		      }
-		    }
+		List<BuildSimulation> legacySimulations = simulations;
+		if (legacySimulations != null) {
+			for (BuildSimulation sim : legacySimulations) {
+				if (sim.getSimulationName().equals(simulationName)) {
+					return sim;
+				}
+			}
+			return null;
+		}
+		// the reports are rendered from the archive directory, the statistics aren't needed
+		for (SimulationHeader header : headers) {
+			if (header.getSimulationName().equals(simulationName)) {
+				return toSimulation(header, null);
+			}
+		}
 		return null;
 	}
 
 	@Override
 	public Collection<? extends Action> getProjectActions() {
-		List<GatlingProjectAction> projectActions = new ArrayList<>();
-		projectActions.add(new GatlingProjectAction(run.getParent()));
-		return projectActions;
+		return Collections.singletonList(ProjectActions.getProjectAction(run.getParent()));
 	}
 
     public List<AssertionData> getAssertionDataList() {
-        return this.assertionDataList;
+        List<AssertionData> legacyAssertions = assertionDataList;
+        if (legacyAssertions != null) {
+            return legacyAssertions;
+        }
+        BuildActionSidecar.Payload loaded = getPayload();
+        return loaded != null ? loaded.assertions : new ArrayList<AssertionData>();
     }
 
     /*
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Items;
+import hudson.model.Job;
+import hudson.model.listeners.ItemListener;
+import io.gatling.jenkins.trend.TrendIndex;
+
+/**
+ * Drops the cached Gatling data of the jobs that are deleted or moved, which
+ * would otherwise stay in memory until the next restart.
+ */
+@Extension
+public class GatlingItemListener extends ItemListener {
+
+    @Override
+    public void onDeleted(Item item) {
+        forget(item);
+    }
+
+    @Override
+    public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+        forget(item);
+    }
+
+    private void forget(Item item) {
+        if (item instanceof Job) {
+            forget((Job<?, ?>) item);
+        } else if (item instanceof ItemGroup) {
+            // the jobs of a folder go with it
+            for (Job<?, ?> job : Items.getAllItems((ItemGroup<?>) item, Job.class)) {
+                forget(job);
+            }
+        }
+    }
+
+    private void forget(Job<?, ?> job) {
+        ProjectActions.remove(job);
+        TrendIndex.forget(job);
+    }
+}
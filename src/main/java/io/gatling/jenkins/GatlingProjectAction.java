@@ -17,11 +17,21 @@ package io.gatling.jenkins;
 
 import static io.gatling.jenkins.PluginConstants.*;
 import hudson.model.*;
+import java.io.IOException;
 import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import io.gatling.jenkins.chart.ChangePointAnalysis;
+import io.gatling.jenkins.chart.ChartMetric;
 import io.gatling.jenkins.chart.Graph;
+import io.gatling.jenkins.chart.GroupShareGraph;
+import io.gatling.jenkins.chart.TrendDataset;
+import io.gatling.jenkins.trend.LastBuildMarker;
+import io.gatling.jenkins.trend.ReportPage;
+import io.gatling.jenkins.trend.RequestStatsFile;
+import io.gatling.jenkins.trend.TrendIndex;
+import io.gatling.jenkins.trend.TrendRecord;
 import io.gatling.jenkins.targetenvgraphs.envgraphs.graphite.TrendGraphBuilder;
 
 import org.apache.commons.lang.builder.ToStringBuilder;
@@ -55,69 +65,126 @@ public class GatlingProjectAction implements Action {
 
 	@SuppressWarnings("UnusedDeclaration")
     public boolean isVisible() {
-        for (Run<?, ?> build : getJob().getBuilds()) {
-            GatlingBuildAction gatlingBuildAction = build.getAction(GatlingBuildAction.class);
-            if (gatlingBuildAction != null) {
-                return true;
-            }
-        }
-        return false;
+        return LastBuildMarker.get(getJob()) > 0;
     }
 
 	@SuppressWarnings("UnusedDeclaration")
-    public Graph<Long> getDashboardGraph() {
-		return new Graph<Long>(job, MAX_BUILDS_TO_DISPLAY_DASHBOARD) {
-			@Override
-			public Long getValue(RequestReport requestReport) {
-				return requestReport.getMeanResponseTime().getTotal();
-			}
-		};
+    public Graph getDashboardGraph() {
+		return Graph.forMetric(TrendDataset.forJob(job, MAX_BUILDS_TO_DISPLAY_DASHBOARD), ChartMetric.MEAN);
 	}
 
     @SuppressWarnings("UnusedDeclaration")
-	public Graph<Long> getMeanResponseTimeGraph() {
-		return new Graph<Long>(job, MAX_BUILDS_TO_DISPLAY) {
-			@Override
-			public Long getValue(RequestReport requestReport) {
-				return requestReport.getMeanResponseTime().getTotal();
-			}
-		};
+	public Graph getMeanResponseTimeGraph() {
+		return Graph.forMetric(TrendDataset.forJob(job, MAX_BUILDS_TO_DISPLAY), ChartMetric.MEAN, MAX_POINTS_TO_DISPLAY);
 	}
 
     @SuppressWarnings("UnusedDeclaration")
-	public Graph<Long> getPercentileResponseTimeGraph() {
-		return new Graph<Long>(job, MAX_BUILDS_TO_DISPLAY) {
-			@Override
-			public Long getValue(RequestReport requestReport) {
-				return requestReport.getPercentiles95().getTotal();
-			}
-		};
+	public Graph getPercentileResponseTimeGraph() {
+		return Graph.forMetric(TrendDataset.forJob(job, MAX_BUILDS_TO_DISPLAY), ChartMetric.PERCENTILE_3, MAX_POINTS_TO_DISPLAY);
 	}
 
     @SuppressWarnings("UnusedDeclaration")
-	public Graph<Long> getRequestKOPercentageGraph() {
-		return new Graph<Long>(job, MAX_BUILDS_TO_DISPLAY) {
-			@Override
-			public Long getValue(RequestReport requestReport) {
-				return Math.round(requestReport.getNumberOfRequests().getKO() * 100.0 / requestReport.getNumberOfRequests().getTotal());
-			}
-		};
+	public Graph getRequestKOPercentageGraph() {
+		return Graph.forMetric(TrendDataset.forJob(job, MAX_BUILDS_TO_DISPLAY), ChartMetric.KO_PERCENTAGE, MAX_POINTS_TO_DISPLAY);
 	}
 
+    /**
+     * @return the trend of any {@link ChartMetric}, or null if the metric is unknown
+     */
     @SuppressWarnings("UnusedDeclaration")
-    public Map<Run<?, ?>, List<String>> getReports() {
-        Map<Run<?, ?>, List<String>> reports = new LinkedHashMap<Run<?, ?>, List<String>>();
-        for (Run<?, ?> build : job.getBuilds()) {
-            GatlingBuildAction action = build.getAction(GatlingBuildAction.class);
-            if (action != null) {
-                List<String> simNames = new ArrayList<String>();
-                for (BuildSimulation sim : action.getSimulations()) {
-                    simNames.add(sim.getSimulationName());
-                }
-                reports.put(build, simNames);
-            }
+    public Graph getTrendGraph(String metricId) {
+        ChartMetric metric = ChartMetric.fromId(metricId);
+        if (metric == null) {
+            return null;
+        }
+        return Graph.forMetric(TrendDataset.forJob(job, MAX_BUILDS_TO_DISPLAY), metric, MAX_POINTS_TO_DISPLAY);
+    }
+
+    /**
+     * @return the stacked response time group shares of each simulation
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public List<GroupShareGraph> getGroupShareGraphs() {
+        String[] groupNames = {Messages.GroupShare_Fast(), Messages.GroupShare_Moderate(), Messages.GroupShare_Slow(), Messages.GroupShare_Failed()};
+        return GroupShareGraph.forSimulations(TrendDataset.forJob(job, MAX_BUILDS_TO_DISPLAY), groupNames, MAX_POINTS_TO_DISPLAY);
+    }
+
+    /**
+     * @return the builds where the performance of a simulation shifted
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public ChangePointAnalysis getChangePointAnalysis() {
+        return ChangePointAnalysis.forJob(job, MAX_BUILDS_TO_DISPLAY);
+    }
+
+    /**
+     * @return the names of the simulations of the last builds, sorted by name
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public List<String> getSimulationNames() {
+        return new ArrayList<String>(TrendDataset.forJob(job, MAX_BUILDS_TO_DISPLAY).getRecordsBySimulation().keySet());
+    }
+
+    /**
+     * @return the paths of the requests of the last build of a simulation
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public List<String> getRequestNames(String simulationName) {
+        List<TrendRecord> records = TrendDataset.forJob(job, MAX_BUILDS_TO_DISPLAY).getRecordsBySimulation().get(simulationName);
+        if (records == null || records.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int buildNumber = records.get(0).getBuildNumber();
+        try {
+            return RequestStatsFile.readRequestNames(RequestStatsFile.getFile(job, buildNumber), simulationName);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to read the Gatling request statistics of " + job.getFullName() + " #" + buildNumber, e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * @return the trend of a metric of one request of a simulation, or null if the metric is unknown
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public Graph getRequestGraph(String simulationName, String requestName, String metricId) {
+        ChartMetric metric = ChartMetric.fromId(metricId);
+        if (metric == null) {
+            return null;
+        }
+        int builds = MAX_BUILDS_TO_DISPLAY > 0
+                ? Math.min(MAX_BUILDS_TO_DISPLAY, MAX_REQUEST_BUILDS_TO_DISPLAY) : MAX_REQUEST_BUILDS_TO_DISPLAY;
+        return Graph.forMetric(TrendDataset.forRequest(job, simulationName, requestName, builds), metric, MAX_POINTS_TO_DISPLAY);
+    }
+
+    /**
+     * Serves the JSON trend endpoints under `/gatling/api`.
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public TrendApi getApi() {
+        return new TrendApi(this);
+    }
+
+    /**
+     * @return the first page of the builds with Gatling reports, newest first
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public ReportPage getReportPage() {
+        return getReportPage(0, REPORTS_PAGE_SIZE);
+    }
+
+    /**
+     * @param before only list the builds with a lower number, or 0 to start from the last build
+     */
+    public ReportPage getReportPage(int before, int size) {
+        List<TrendRecord> records;
+        try {
+            records = TrendIndex.forJob(job).getRecords();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to read the Gatling trend index of " + job.getFullName(), e);
+            records = Collections.emptyList();
         }
-        return reports;
+        return ReportPage.of(records, before, size);
     }
 
     public String getReportURL(int build, String simName) {
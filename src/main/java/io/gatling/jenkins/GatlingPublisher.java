@@ -15,10 +15,6 @@
  */
 package io.gatling.jenkins;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 import hudson.Extension;
 import hudson.FilePath;
 import hudson.Launcher;
@@ -26,20 +22,40 @@ import hudson.XmlFile;
 import hudson.init.Initializer;
 import hudson.init.InitMilestone;
 import hudson.model.*;
+import hudson.remoting.Channel;
+import hudson.remoting.RemoteOutputStream;
+import hudson.remoting.VirtualChannel;
 import hudson.tasks.BuildStepDescriptor;
 import hudson.tasks.BuildStepMonitor;
 import hudson.tasks.Publisher;
 import hudson.tasks.Recorder;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.gatling.jenkins.trend.LastBuildMarker;
+import io.gatling.jenkins.trend.Regression;
+import io.gatling.jenkins.trend.RegressionBaseline;
+import io.gatling.jenkins.trend.RequestStatsFile;
+import io.gatling.jenkins.trend.TrendMetric;
 import jenkins.tasks.SimpleBuildStep;
 import org.apache.commons.lang.StringUtils;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
 import javax.annotation.Nonnull;
 import java.io.*;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -48,10 +64,16 @@ import static io.gatling.jenkins.PluginConstants.*;
 
 public class GatlingPublisher extends Recorder implements SimpleBuildStep {
 
+    private static final Logger LOGGER = Logger.getLogger(GatlingPublisher.class.getName());
+
     private final Boolean enabled;
-    private Run<?, ?> run;
-    private PrintStream logger;
-    private AbstractProject<?, ?> project;
+    private int archiveThreads;
+    private boolean deduplicateReports;
+    private boolean compressSimulationLog;
+    private boolean compressTextAssets;
+    private boolean detectRegressions;
+    private boolean markUnstableOnRegression;
+    private double regressionThreshold;
 
 
     @DataBoundConstructor
@@ -59,31 +81,100 @@ public class GatlingPublisher extends Recorder implements SimpleBuildStep {
         this.enabled = enabled;
     }
 
+    /**
+     * @param archiveThreads the maximum number of simulations archived concurrently,
+     *                       0 to use {@link PluginConstants#DEFAULT_ARCHIVE_THREADS}
+     */
+    @DataBoundSetter
+    public void setArchiveThreads(int archiveThreads) {
+        this.archiveThreads = Math.max(archiveThreads, 0);
+    }
+
+    public int getArchiveThreads() {
+        return archiveThreads;
+    }
+
+    /**
+     * @param deduplicateReports whether to store the report files in the job's {@link BlobStore},
+     *                           so that the files shared by many reports are only stored once
+     */
+    @DataBoundSetter
+    public void setDeduplicateReports(boolean deduplicateReports) {
+        this.deduplicateReports = deduplicateReports;
+    }
+
+    public boolean isDeduplicateReports() {
+        return deduplicateReports;
+    }
+
+    /**
+     * @param compressSimulationLog whether to gzip the archived simulation.log files
+     */
+    @DataBoundSetter
+    public void setCompressSimulationLog(boolean compressSimulationLog) {
+        this.compressSimulationLog = compressSimulationLog;
+    }
+
+    public boolean isCompressSimulationLog() {
+        return compressSimulationLog;
+    }
+
+    /**
+     * @param compressTextAssets whether to gzip all the archived text files of the reports, simulation.log included
+     */
+    @DataBoundSetter
+    public void setCompressTextAssets(boolean compressTextAssets) {
+        this.compressTextAssets = compressTextAssets;
+    }
+
+    public boolean isCompressTextAssets() {
+        return compressTextAssets;
+    }
+
+    /**
+     * @param detectRegressions whether to check the simulations against the {@link RegressionBaseline} of the job
+     */
+    @DataBoundSetter
+    public void setDetectRegressions(boolean detectRegressions) {
+        this.detectRegressions = detectRegressions;
+    }
+
+    public boolean isDetectRegressions() {
+        return detectRegressions;
+    }
+
+    /**
+     * @param markUnstableOnRegression whether a build with regressions is unstable
+     */
+    @DataBoundSetter
+    public void setMarkUnstableOnRegression(boolean markUnstableOnRegression) {
+        this.markUnstableOnRegression = markUnstableOnRegression;
+    }
+
+    public boolean isMarkUnstableOnRegression() {
+        return markUnstableOnRegression;
+    }
+
+    /**
+     * @param regressionThreshold the number of standard deviations from the baseline beyond which a value is a
+     *                            regression, 0 to use {@link RegressionBaseline#DEFAULT_THRESHOLD}
+     */
+    @DataBoundSetter
+    public void setRegressionThreshold(double regressionThreshold) {
+        this.regressionThreshold = Math.max(regressionThreshold, 0);
+    }
+
+    public double getRegressionThreshold() {
+        return regressionThreshold;
+    }
+
     @Override
     public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener) throws InterruptedException, IOException {
-        this.run = build;
-        logger = listener.getLogger();
-        if (enabled == null) {
-            logger.println("Cannot check Gatling simulation tracking status, reports won't be archived.");
-            logger.println("Please make sure simulation tracking is enabled in your build configuration !");
+        Archiver archiver = new Archiver(build, listener);
+        GatlingBuildAction action = archiver.archive(build.getWorkspace());
+        if (action == null) {
             return true;
         }
-        if (!enabled) {
-            logger.println("Simulation tracking disabled, reports were not archived.");
-            return true;
-        }
-
-        logger.println("Archiving Gatling reports...");
-        List<BuildSimulation> sims = saveFullReports(build.getWorkspace(), build.getRootDir());
-        if (sims.isEmpty()) {
-            logger.println("No newer Gatling reports to archive.");
-            return true;
-        }
-
-        List<AssertionData> assertionDataList = readAssertionData(sims);
-        GatlingBuildAction action = new GatlingBuildAction(build, sims, assertionDataList);
-
-        build.addAction(action);
 
         List<SimulationSourceAction> simSourceActions = generateSimulationSourceActionsFromGatlingBuildAction(action, false);
         for (SimulationSourceAction act : simSourceActions) {
@@ -95,9 +186,10 @@ public class GatlingPublisher extends Recorder implements SimpleBuildStep {
             build.addAction(graphAction);
         }
 
+        PrintStream logger = listener.getLogger();
         logger.println("Setting Build Description...");
         try {
-            build.setDescription(this.generateBuildDescriptionFromAssertionData(assertionDataList));
+            build.setDescription(this.generateBuildDescriptionFromAssertionData(action.getAssertionDataList()));
         } catch (Exception e) {
             logger.println("ERROR in Setting Build Description " + e);
         }
@@ -107,26 +199,7 @@ public class GatlingPublisher extends Recorder implements SimpleBuildStep {
 
     @Override
     public void perform(@Nonnull Run<?, ?> run, @Nonnull FilePath workspace, @Nonnull Launcher launcher, @Nonnull TaskListener listener) throws InterruptedException, IOException {
-        this.run = run;
-        logger = listener.getLogger();
-        if (enabled == null) {
-            logger.println("Cannot check Gatling simulation tracking status, reports won't be archived.");
-            logger.println("Please make sure simulation tracking is enabled in your build configuration !");
-            return;
-        }
-        if (!enabled) {
-            logger.println("Simulation tracking disabled, reports were not archived.");
-            return;
-        }
-        logger.println("Archiving Gatling reports...");
-        List<BuildSimulation> sims = saveFullReports(workspace, run.getRootDir());
-        if (sims.isEmpty()) {
-            logger.println("No newer Gatling reports to archive.");
-            return;
-        }
-        List<AssertionData> assertionDataList = readAssertionData(sims);
-        GatlingBuildAction action = new GatlingBuildAction(run, sims, assertionDataList);
-        run.addAction(action);
+        new Archiver(run, listener).archive(workspace);
     }
 
     public boolean isEnabled() {
@@ -137,83 +210,328 @@ public class GatlingPublisher extends Recorder implements SimpleBuildStep {
         return BuildStepMonitor.BUILD;
     }
 
-    private List<BuildSimulation> saveFullReports(FilePath workspace, File rootDir) throws IOException, InterruptedException {
-        FilePath[] files = workspace.list("**/global_stats.json");
+    /**
+     * One invocation of the publisher, for one build.
+     *
+     * The publisher is shared by all the builds of the job, which may run
+     * concurrently, so it only holds the configuration and everything about
+     * the build being archived lives here.
+     */
+    private final class Archiver {
+        private final Run<?, ?> run;
+        private final PrintStream logger;
+
+        Archiver(Run<?, ?> run, TaskListener listener) {
+            this.run = run;
+            this.logger = listener.getLogger();
+        }
 
-        List<FilePath> reportFolders = new ArrayList<FilePath>();
+        /**
+         * Archives the reports written by the build and attaches them to it.
+         *
+         * @return the action of the archived reports, or null if there were none
+         */
+        GatlingBuildAction archive(FilePath workspace) throws IOException, InterruptedException {
+            if (enabled == null) {
+                logger.println("Cannot check Gatling simulation tracking status, reports won't be archived.");
+                logger.println("Please make sure simulation tracking is enabled in your build configuration !");
+                return null;
+            }
+            if (!enabled) {
+                logger.println("Simulation tracking disabled, reports were not archived.");
+                return null;
+            }
 
-        if (files.length == 0) {
-            logger.println("Could not find a Gatling report in results folder.");
-            return Collections.emptyList();
-        }
+            logger.println("Archiving Gatling reports...");
+            List<ArchivedSimulation> archivedSims = saveFullReports(workspace, run.getRootDir());
+            if (archivedSims.isEmpty()) {
+                logger.println("No newer Gatling reports to archive.");
+                return null;
+            }
 
-        // Get reports folders for all "global_stats.json" found
-        for (FilePath file : files) {
-            reportFolders.add(file.getParent().getParent());
+            List<BuildSimulation> sims = getSimulations(archivedSims);
+            List<AssertionData> assertionDataList = getAssertionData(archivedSims);
+            GatlingBuildAction action = GatlingBuildAction.create(run, sims, assertionDataList);
+            run.addAction(action);
+            LastBuildMarker.update(run);
+            checkRegressions(archivedSims);
+            return action;
         }
 
-        List<FilePath> reportsToArchive = selectReports(reportFolders);
+        private List<ArchivedSimulation> saveFullReports(FilePath workspace, File rootDir) throws IOException, InterruptedException {
+            File allSimulationsDirectory = new File(rootDir, "simulations");
+            if (!allSimulationsDirectory.exists()) {
+                boolean mkdirResult = allSimulationsDirectory.mkdir();
+                if (! mkdirResult) {
+                    logger.println("Could not create simulations archive directory '" + allSimulationsDirectory + "'");
+                    return Collections.emptyList();
+                }
+            }
 
-        // If the most recent report has already been archived, there's nothing else to do
-        if (reportsToArchive.isEmpty()) {
-            return Collections.emptyList();
+            List<ReportFolder> reportsToArchive = collectReports(workspace, rootDir, allSimulationsDirectory);
+
+            // If the most recent report has already been archived, there's nothing else to do
+            if (reportsToArchive.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            List<Callable<ArchivedSimulation>> tasks = new ArrayList<Callable<ArchivedSimulation>>();
+            List<String> names = new ArrayList<String>();
+            for (final ReportFolder reportToArchive : reportsToArchive) {
+                final File simulationDirectory = new File(allSimulationsDirectory, reportToArchive.getName());
+                tasks.add(new Callable<ArchivedSimulation>() {
+                    public ArchivedSimulation call() throws Exception {
+                        return archiveSimulation(reportToArchive, simulationDirectory);
+                    }
+                });
+                names.add(reportToArchive.getName());
+            }
+            List<ArchivedSimulation> results = runOnArchivePool(tasks, names, archiveThreads, logger);
+
+            List<ArchivedSimulation> simsToArchive = new ArrayList<ArchivedSimulation>();
+            List<File> archivedDirectories = new ArrayList<File>();
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i) != null) {
+                    simsToArchive.add(results.get(i));
+                    archivedDirectories.add(new File(allSimulationsDirectory, names.get(i)));
+                }
+            }
+            if (deduplicateReports && !archivedDirectories.isEmpty()) {
+                // all the reports at once, for a single update of the reference counts of the store
+                try {
+                    ReportManifest.create(archivedDirectories, BlobStore.forJob(run.getParent()));
+                } catch (IOException e) {
+                    logger.println("ERROR in deduplicating the archived reports, they are kept as they are: " + e);
+                }
+            }
+            saveRequestStats(rootDir, simsToArchive);
+            return simsToArchive;
         }
 
-        List<BuildSimulation> simsToArchive = new ArrayList<BuildSimulation>();
+        private ArchivedSimulation archiveSimulation(ReportFolder reportFolder, File simulationDirectory) throws IOException, InterruptedException {
+            if (!simulationDirectory.isDirectory()) {
+                throw new FileNotFoundException("Could not find simulation archive directory '" + simulationDirectory + "'");
+            }
+            String simulation = reportFolder.getSimulationName();
+            FilePath reportDirectory = new FilePath(simulationDirectory);
 
+            SimulationReport report = new SimulationReport(reportDirectory, simulation);
+            report.readStatsFile();
+            BuildSimulation sim = new BuildSimulation(simulation, report.getGlobalReport(), reportDirectory);
+            List<AssertionData> assertions = readAssertionData(sim);
+            Map<String, long[]> requestStats = new LinkedHashMap<String, long[]>();
+            for (Map.Entry<String, RequestReport> request : ReportParser.readRequestStats(simulationDirectory).entrySet()) {
+                requestStats.put(request.getKey(), TrendMetric.extractAll(request.getValue()));
+            }
 
-        File allSimulationsDirectory = new File(rootDir, "simulations");
-        if (!allSimulationsDirectory.exists()) {
-            boolean mkdirResult = allSimulationsDirectory.mkdir();
-            if (! mkdirResult) {
-                logger.println("Could not create simulations archive directory '" + allSimulationsDirectory + "'");
-                return Collections.emptyList();
+            if (compressSimulationLog || compressTextAssets) {
+                long saved = ReportCompressor.compress(simulationDirectory, compressTextAssets);
+                logger.println("Compressed report '" + reportFolder.getName() + "', saved " + saved + " bytes");
             }
+            return new ArchivedSimulation(sim, assertions, requestStats);
         }
 
-        for (FilePath reportToArchive : reportsToArchive) {
-            String name = reportToArchive.getName();
-            int dashIndex = name.lastIndexOf('-');
-            String simulation = name.substring(0, dashIndex);
-            File simulationDirectory = new File(allSimulationsDirectory, name);
-            boolean mkdirResult = simulationDirectory.mkdir();
-            if (! mkdirResult) {
-                logger.println("Could not create simulation archive directory '" + simulationDirectory + "'");
-                return Collections.emptyList();
+        /**
+         * Saves the statistics of each request of the archived simulations next
+         * to the build, where the request trends read them from.
+         */
+        private void saveRequestStats(File rootDir, List<ArchivedSimulation> archivedSims) {
+            Map<String, Map<String, long[]>> statsBySimulation = new LinkedHashMap<String, Map<String, long[]>>();
+            for (ArchivedSimulation archivedSim : archivedSims) {
+                statsBySimulation.put(archivedSim.simulation.getSimulationName(), archivedSim.requestStats);
             }
+            try {
+                RequestStatsFile.write(new File(rootDir, RequestStatsFile.FILE_NAME), run.getNumber(), run.getTimeInMillis(), statsBySimulation);
+            } catch (IOException e) {
+                logger.println("ERROR in saving request statistics: " + e);
+            }
+        }
 
-            FilePath reportDirectory = new FilePath(simulationDirectory);
+        /**
+         * Checks the archived simulations against the baseline of the job, and
+         * marks the build as unstable if requested and any of them regressed.
+         */
+        private void checkRegressions(List<ArchivedSimulation> archivedSims) {
+            if (!detectRegressions) {
+                return;
+            }
+            double threshold = regressionThreshold > 0 ? regressionThreshold : RegressionBaseline.DEFAULT_THRESHOLD;
+            RegressionBaseline baseline = RegressionBaseline.forJob(run.getParent());
+            // the values of a failed or aborted build say nothing of the normal performance
+            Result result = run.getResult();
+            boolean update = result == null || result.isBetterThan(Result.FAILURE);
+            List<Regression> regressions = new ArrayList<Regression>();
+            for (ArchivedSimulation archivedSim : archivedSims) {
+                BuildSimulation sim = archivedSim.simulation;
+                try {
+                    regressions.addAll(baseline.check(sim.getSimulationName(), TrendMetric.extractAll(sim.getRequestReport()), threshold, update));
+                } catch (IOException e) {
+                    logger.println("ERROR in checking simulation '" + sim.getSimulationName() + "' for regressions: " + e);
+                }
+            }
 
-            reportToArchive.copyRecursiveTo(reportDirectory);
+            if (regressions.isEmpty()) {
+                logger.println("No performance regression found.");
+                return;
+            }
+            for (Regression regression : regressions) {
+                logger.println("Performance regression in " + regression);
+            }
+            if (markUnstableOnRegression) {
+                logger.println("Marking the build as unstable.");
+                run.setResult(Result.UNSTABLE);
+            }
+        }
 
+        /**
+         * Finds the reports written by this build in the workspace and extracts
+         * them into the simulations archive directory.
+         *
+         * All the remote work is done by a single {@link ReportCollector} call,
+         * which streams the reports back as one tarball instead of listing,
+         * checking and copying each report folder separately.
+         */
+        private List<ReportFolder> collectReports(FilePath workspace, File rootDir, File allSimulationsDirectory) throws IOException, InterruptedException {
+            String sourceFilePattern = null;
             try {
-                saveSimulationSourceClass(workspace, reportDirectory);
+                sourceFilePattern = getSimulationSourceFilePattern();
             } catch (Exception e) {
                 logger.println("ERROR in archiving simulation source code: " + e);
             }
 
-            SimulationReport report = new SimulationReport(reportDirectory, simulation);
-            report.readStatsFile();
-            BuildSimulation sim = new BuildSimulation(simulation, report.getGlobalReport(), reportDirectory);
-            simsToArchive.add(sim);
+            File tarball = File.createTempFile("gatling-reports", ".tar.gz", rootDir);
+            try {
+                List<ReportFolder> reportFolders;
+                OutputStream os = new FileOutputStream(tarball);
+                try {
+                    reportFolders = workspace.act(new ReportCollector(run.getStartTimeInMillis(), sourceFilePattern, new RemoteOutputStream(os)));
+                    // writes to the RemoteOutputStream are asynchronous, make sure they all got delivered
+                    VirtualChannel channel = workspace.getChannel();
+                    if (channel instanceof Channel) {
+                        ((Channel) channel).syncLocalIO();
+                    }
+                } finally {
+                    os.close();
+                }
+
+                if (reportFolders.isEmpty()) {
+                    return reportFolders;
+                }
+
+                for (ReportFolder reportFolder : reportFolders) {
+                    logger.println("Adding report '" + reportFolder.getName() + "' (" + reportFolder.getSize() + " bytes)");
+                }
+                new FilePath(tarball).untar(new FilePath(allSimulationsDirectory), FilePath.TarCompression.GZIP);
+                return reportFolders;
+            } finally {
+                if (!tarball.delete()) {
+                    logger.println("Could not delete temporary file '" + tarball + "'");
+                }
+            }
         }
 
+        private List<AssertionData> readAssertionData(BuildSimulation sim) throws IOException, InterruptedException {
 
-        return simsToArchive;
-    }
+            List<AssertionData> assertionList = new ArrayList<AssertionData>();
+
+            AssertionsData assertionsData = ReportParser.readAssertions(new File(sim.getSimulationDirectory().getRemote()));
 
+            if (assertionsData == null) {
+                logger.println("No assertions found for simulation '" + sim.getSimulationName() + "'");
+                return assertionList;
+            }
 
-    private List<FilePath> selectReports(List<FilePath> reportFolders) throws InterruptedException, IOException {
-        long buildStartTime = run.getStartTimeInMillis();
-        List<FilePath> reportsFromThisBuild = new ArrayList<FilePath>();
-        for (FilePath reportFolder : reportFolders) {
-            long reportLastMod = reportFolder.lastModified();
-            if (reportLastMod > buildStartTime) {
-                logger.println("Adding report '" + reportFolder.getName() + "'");
-                reportsFromThisBuild.add(reportFolder);
+            for (AssertionData assertionData : assertionsData.assertions) {
+                assertionData.projectName = run.getParent().getName();
+                assertionData.simulationName = assertionsData.simulation;
+                assertionData.expectedValue= StringUtils.join(assertionData.conditionValues, ",");
+                assertionData.actualValue = StringUtils.join(assertionData.values, ",");
+                assertionList.add(assertionData);
+            }
+
+            return assertionList;
+        }
+
+        private String getSimulationClassFromMavenCommand() throws IOException {
+            String result = "";
+            XmlFile configfile = run.getParent().getConfigFile();
+            Pattern pattern = Pattern.compile(".*-Dgatling\\.simulationClass=([a-zA-Z0-9\\.]+).*");
+            String line = "";
+            Reader configReader = configfile.readRaw();
+            BufferedReader br = new BufferedReader(configReader);
+            line = br.readLine();
+            while (line != null) {
+                result = hasMatchSimulationClass(line, pattern);
+                if (!result.isEmpty()) {
+                    break;
+                }
+                line = br.readLine();
+            }
+            br.close();
+            return result;
+        }
+
+        private String getSimulationSourceFilePattern() throws IOException {
+            // the simulation class is looked for in the Maven command of freestyle projects
+            if (!(run.getParent() instanceof AbstractProject)) {
+                return null;
+            }
+            String simSourceClass = getSimulationClassFromMavenCommand();
+            if (simSourceClass.isEmpty()) {
+                return null;
+            }
+            return "**/" + getSimulationSourceClass(simSourceClass);
+        }
+    }
+
+    /**
+     * Runs the archiving tasks on a pool of at most {@code archiveThreads} threads ({@link
+     * PluginConstants#DEFAULT_ARCHIVE_THREADS} when not positive), and returns their results in task order,
+     * whatever order they complete in. A task that fails is logged under its name and has a {@code null}
+     * result, without aborting the others.
+     */
+    static <T> List<T> runOnArchivePool(List<? extends Callable<T>> tasks, List<String> names, int archiveThreads,
+                                        PrintStream logger) throws InterruptedException {
+        if (tasks.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int threads = Math.min(archiveThreads > 0 ? archiveThreads : DEFAULT_ARCHIVE_THREADS, tasks.size());
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                new NamingThreadFactory(new DaemonThreadFactory(), "Gatling report archiver"));
+        try {
+            List<Future<T>> futures = new ArrayList<Future<T>>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            List<T> results = new ArrayList<T>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    logger.println("ERROR in archiving simulation '" + names.get(i) + "': " + e.getCause());
+                    results.add(null);
+                }
             }
+            return results;
+        } finally {
+            executor.shutdownNow();
         }
-        return reportsFromThisBuild;
+    }
+
+    private static List<BuildSimulation> getSimulations(List<ArchivedSimulation> archivedSims) {
+        List<BuildSimulation> sims = new ArrayList<BuildSimulation>();
+        for (ArchivedSimulation archivedSim : archivedSims) {
+            sims.add(archivedSim.simulation);
+        }
+        return sims;
+    }
+
+    private static List<AssertionData> getAssertionData(List<ArchivedSimulation> archivedSims) {
+        List<AssertionData> assertionList = new ArrayList<AssertionData>();
+        for (ArchivedSimulation archivedSim : archivedSims) {
+            assertionList.addAll(archivedSim.assertions);
+        }
+        return assertionList;
     }
 
     @Extension
@@ -233,16 +551,28 @@ public class GatlingPublisher extends Recorder implements SimpleBuildStep {
         public static void addAliases() {
             Items.XSTREAM2.addCompatibilityAlias("io.gatling.jenkins.GatlingPublisher", GatlingPublisher.class);
             Items.XSTREAM2.addCompatibilityAlias("io.gatling.jenkins.GatlingBuildAction", GatlingBuildAction.class);
+            Run.XSTREAM2.registerConverter(new RequestReport.ConverterImpl());
         }
     }
 
     @Override
     public final Collection<? extends Action> getProjectActions(AbstractProject<?, ?> project) {
-        this.project = project;
+        List<Action> actions = ProjectActions.getPublisherActions(project);
+        if (actions == null) {
+            actions = Collections.unmodifiableList(createProjectActions(project));
+            ProjectActions.putPublisherActions(project, actions);
+        }
+        return actions;
+    }
+
+    private List<Action> createProjectActions(AbstractProject<?, ?> project) {
         List<Action> actions = new ArrayList<Action>();
+        actions.add(ProjectActions.getProjectAction(project));
         try {
-            actions.add(new GatlingProjectAction(project));
             GatlingBuildAction lastBuildAct = getLastBuildGatlingBuildAction(project);
+            if (lastBuildAct == null) {
+                return actions;
+            }
             List<SimulationSourceAction> simSourceActions = generateSimulationSourceActionsFromGatlingBuildAction(lastBuildAct, true);
             for (SimulationSourceAction act : simSourceActions) {
                 actions.add(act);
@@ -251,21 +581,22 @@ public class GatlingPublisher extends Recorder implements SimpleBuildStep {
             for (TargetEnvGraphAction graphAction : graphActions) {
                 actions.add(graphAction);
             }
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to create the Gatling actions of " + project.getFullName(), e);
         }
         return actions;
     }
 
     private GatlingBuildAction getLastBuildGatlingBuildAction(AbstractProject<?, ?> project) {
         AbstractBuild<?, ?> lastbuild = project.getLastCompletedBuild();
-        return lastbuild.getAction(GatlingBuildAction.class);
+        return lastbuild != null ? lastbuild.getAction(GatlingBuildAction.class) : null;
     }
 
     private List<SimulationSourceAction> generateSimulationSourceActionsFromGatlingBuildAction(GatlingBuildAction buildaction, Boolean isProject) {
         List<SimulationSourceAction> sourceactions = new ArrayList<SimulationSourceAction>();
         String icon = ICON_URL;
         String url = "";
-        for (BuildSimulation sim : buildaction.getSimulations()) {
+        for (SimulationHeader sim : buildaction.getSimulationHeaders()) {
             if (isProject) {
                 Integer buildActionNum = buildaction.getRun().getNumber();
                 url = buildaction.getSimulationClassSourceURL(buildActionNum, sim.getSimulationName());
@@ -283,7 +614,7 @@ public class GatlingPublisher extends Recorder implements SimpleBuildStep {
         List<TargetEnvGraphAction> sourceActions = new ArrayList<TargetEnvGraphAction>();
         String icon = TARGET_ENV_GRAPHS_ICON;
         String url = "";
-        for (BuildSimulation sim : buildAction.getSimulations()) {
+        for (SimulationHeader sim : buildAction.getSimulationHeaders()) {
             if (isProject) {
                 Integer buildActionNum = buildAction.getRun().getNumber();
                 url = buildAction.getTargetEnvGraphURL(buildActionNum, sim.getSimulationName());
@@ -379,36 +710,19 @@ public class GatlingPublisher extends Recorder implements SimpleBuildStep {
 
     }
 
-    private List<AssertionData> readAssertionData(List<BuildSimulation> sims) throws IOException, InterruptedException {
-
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-
-        List<AssertionData> assertionList = new ArrayList<AssertionData>();
-
-        for (BuildSimulation sim : sims) {
-            FilePath workspace = sim.getSimulationDirectory();
-            FilePath[] files = workspace.list("**/assertions.json");
-
-            if (files.length == 0) {
-                throw new IllegalArgumentException("Could not find a Gatling report in results folder.");
-            }
-
-            for (FilePath filepath : files) {
-                File file = new File(filepath.getRemote());
-                AssertionsData assertionsData = objectMapper.readValue(file, new TypeReference<AssertionsData>() {
-                });
-                for (AssertionData assertionData : assertionsData.assertions) {
-                	assertionData.projectName = project.getName();
-                	assertionData.simulationName = assertionsData.simulation;
-                	assertionData.expectedValue= StringUtils.join(assertionData.conditionValues, ",");
-                	assertionData.actualValue = StringUtils.join(assertionData.values, ",");
-                	assertionList.add(assertionData);
-                }
-            }
+    /**
+     * The outcome of archiving one simulation report.
+     */
+    private static final class ArchivedSimulation {
+        private final BuildSimulation simulation;
+        private final List<AssertionData> assertions;
+        private final Map<String, long[]> requestStats;
+
+        ArchivedSimulation(BuildSimulation simulation, List<AssertionData> assertions, Map<String, long[]> requestStats) {
+            this.simulation = simulation;
+            this.assertions = assertions;
+            this.requestStats = requestStats;
         }
-
-        return assertionList;
     }
 
     public String hasMatchSimulationClass(String input, Pattern pattern) {
@@ -422,40 +736,6 @@ public class GatlingPublisher extends Recorder implements SimpleBuildStep {
         return rs;
     }
 
-    private String getSimulationClassFromMavenCommand() throws IOException {
-        String result = "";
-        XmlFile configfile = project.getConfigFile();
-        Pattern pattern = Pattern.compile(".*-Dgatling\\.simulationClass=([a-zA-Z0-9\\.]+).*");
-        String line = "";
-        Reader configReader = configfile.readRaw();
-        BufferedReader br = new BufferedReader(configReader);
-        line = br.readLine();
-        while (line != null) {
-            result = hasMatchSimulationClass(line, pattern);
-            if (!result.isEmpty()) {
-                break;
-            }
-            line = br.readLine();
-        }
-        br.close();
-        return result;
-    }
-
-    private void saveSimulationSourceClass(FilePath workspace, FilePath reportDirectory) throws IOException, InterruptedException {
-        String simSourceClass = getSimulationClassFromMavenCommand();
-        String simSourceClassPath = "**/" + getSimulationSourceClass(simSourceClass);
-        FilePath[] simSourceClassFiles = workspace.list(simSourceClassPath);
-
-        if (simSourceClassFiles.length == 0) {
-            throw new IllegalArgumentException("Could not find a simulation source class report in workspace.");
-        }
-
-        for (FilePath file : simSourceClassFiles) {
-            logger.println("Adding '" + file.getName() + "' to the Report Directory...");
-            file.getParent().copyRecursiveTo(file.getName(), reportDirectory);
-        }
-    }
-
     public String getSimulationSourceClass(String simulationClass) {
         return simulationClass.replace(".", "/") + ".scala";
     }
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import io.gatling.jenkins.trend.LastBuildMarker;
+import io.gatling.jenkins.trend.TrendIndex;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Keeps the job level Gatling data in sync with the builds of the job.
+ */
+@Extension
+public class GatlingRunListener extends RunListener<Run<?, ?>> {
+
+    private static final Logger logger = Logger.getLogger(GatlingRunListener.class.getName());
+
+    @Override
+    public void onCompleted(Run<?, ?> run, @Nonnull TaskListener listener) {
+        ProjectActions.invalidate(run.getParent());
+        if (run.getAction(GatlingBuildAction.class) == null) {
+            return;
+        }
+        try {
+            TrendIndex.forJob(run.getParent()).add(run);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to add " + run + " to the Gatling trend index", e);
+        }
+    }
+
+    @Override
+    public void onDeleted(Run<?, ?> run) {
+        ProjectActions.invalidate(run.getParent());
+        releaseBlobs(run);
+        try {
+            TrendIndex.forJob(run.getParent()).remove(run.getNumber());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to remove " + run + " from the Gatling trend index", e);
+        }
+        LastBuildMarker.invalidate(run);
+    }
+
+    /**
+     * Releases the blobs referenced by the deduplicated reports of a build,
+     * so that the ones used by no other build get deleted.
+     */
+    private void releaseBlobs(Run<?, ?> run) {
+        File[] simulationDirectories = new File(run.getRootDir(), "simulations").listFiles();
+        if (simulationDirectories == null) {
+            return;
+        }
+        // all the reports at once, for a single update of the reference counts of the store
+        List<String> hashes = new ArrayList<String>();
+        for (File simulationDirectory : simulationDirectories) {
+            try {
+                ReportManifest manifest = ReportManifest.load(simulationDirectory);
+                if (manifest != null) {
+                    hashes.addAll(manifest.getHashes());
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to read the Gatling report manifest of " + simulationDirectory, e);
+            }
+        }
+        if (hashes.isEmpty()) {
+            return;
+        }
+        try {
+            BlobStore.forJob(run.getParent()).release(hashes);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to release the Gatling report blobs of " + run, e);
+        }
+    }
+}
@@ -16,17 +16,17 @@
 package io.gatling.jenkins;
 
 import hudson.Extension;
-import hudson.XmlFile;
+import hudson.model.AbstractProject;
 import hudson.model.Descriptor;
 import hudson.model.Job;
 import hudson.model.Result;
 import hudson.model.Run;
 import hudson.views.ListViewColumn;
+import io.gatling.jenkins.trend.LastBuildMarker;
 import net.sf.json.JSONObject;
 import org.kohsuke.stapler.StaplerRequest;
 import hudson.views.ListViewColumnDescriptor;
 
-import java.io.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,7 +35,6 @@ import java.util.logging.Logger;
 public class LastBuildColumn extends ListViewColumn {
 
 	private static final Logger logger = Logger.getLogger(LastBuildColumn.class.getName());
-	private static final String GatlingPluginConfigTest = "io.gatling.jenkins.GatlingPublisher";
 
 	public String getLastBuildDescription(String description,Result result) {
 		StringBuilder stringBuilder = new StringBuilder();
@@ -57,25 +56,24 @@ public class LastBuildColumn extends ListViewColumn {
 		return stringBuilder.toString();
 	}
 
-	private boolean isGatlingJob(XmlFile configFile) throws IOException{
-		boolean result = false;
-		BufferedReader br = new BufferedReader(configFile.readRaw());
-		String currentLine;
-		while ((currentLine = br.readLine()) != null) {
-			if (currentLine.contains(GatlingPluginConfigTest)){
-				result = true;
-				break;
-			}
+	/**
+	 * Tells Gatling jobs apart from the job objects already in memory, without
+	 * reading their configuration: freestyle projects have a {@link GatlingPublisher},
+	 * and other jobs, like Pipelines, have archived Gatling reports.
+	 */
+	private boolean isGatlingJob(Job<?, ?> job, Run<?, ?> lastBuild) {
+		if (job instanceof AbstractProject) {
+			return ((AbstractProject<?, ?>) job).getPublishersList().get(GatlingPublisher.class) != null;
 		}
-		return result;
+		return (lastBuild != null && lastBuild.getAction(GatlingBuildAction.class) != null)
+				|| LastBuildMarker.isPresent(job);
 	}
 
 	public String getShortName(Job job){
 		StringBuilder stringBuilder = new StringBuilder();
 		try {
 			Run lastBuild = job.getLastCompletedBuild();
-			XmlFile configFile = job.getConfigFile();
-			if (isGatlingJob(configFile)){
+			if (isGatlingJob(job, lastBuild)){
 				if (lastBuild != null) {
 					String tempdescription = lastBuild.getDescription();
 					Result result = lastBuild.getResult();
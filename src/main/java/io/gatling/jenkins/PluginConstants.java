@@ -27,6 +27,35 @@ public interface PluginConstants {
 	String DISPLAY_NAME_SOURCE = "Gatling - Test Source";
     String TARGET_ENV_GRAPHS_DISPLAY_STRING = "Statistics - Pool Information";
 
-	int MAX_BUILDS_TO_DISPLAY = 30;
+	/**
+	 * Number of builds shown by the trend charts, 0 for the whole history.
+	 */
+	int MAX_BUILDS_TO_DISPLAY = Integer.getInteger("io.gatling.jenkins.maxBuildsToDisplay", 0);
+	/**
+	 * Number of points the series of the trend charts are downsampled to.
+	 */
+	int MAX_POINTS_TO_DISPLAY = Integer.getInteger("io.gatling.jenkins.maxPointsToDisplay", 200);
+	/**
+	 * Maximal number of builds shown by the request trend charts, which read a file per build.
+	 */
+	int MAX_REQUEST_BUILDS_TO_DISPLAY = Integer.getInteger("io.gatling.jenkins.maxRequestBuildsToDisplay", 200);
 	int MAX_BUILDS_TO_DISPLAY_DASHBOARD = 15;
+	/**
+	 * Default number of builds shown by the sparklines of the list views.
+	 */
+	int SPARKLINE_BUILDS = 20;
+
+	int REPORTS_PAGE_SIZE = 20;
+	int MAX_REPORTS_PAGE_SIZE = 200;
+
+	int DEFAULT_ARCHIVE_THREADS = 4;
+
+	/**
+	 * Default number of jobs migrated in parallel by the {@link BuildActionMigration}.
+	 */
+	int DEFAULT_MIGRATION_THREADS = 2;
+	/**
+	 * Default pause between two builds migrated by the same thread, in milliseconds.
+	 */
+	int DEFAULT_MIGRATION_PAUSE = 50;
 }
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import hudson.model.Action;
+import hudson.model.Job;
+
+import java.lang.ref.SoftReference;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The job level actions of the Gatling jobs, which Jenkins asks for many
+ * times per page. They are created once and cached until a build of the job
+ * completes or is deleted, as told by the {@link GatlingRunListener}.
+ *
+ * The actions reference their job, so they are held through soft references
+ * to let the weak keys of the caches be collected, and they are dropped as
+ * soon as their job is deleted or moved, as told by the {@link GatlingItemListener}.
+ */
+final class ProjectActions {
+
+    private static final Map<Job<?, ?>, SoftReference<GatlingProjectAction>> PROJECT_ACTIONS =
+            new WeakHashMap<Job<?, ?>, SoftReference<GatlingProjectAction>>();
+
+    private static final Map<Job<?, ?>, SoftReference<List<Action>>> PUBLISHER_ACTIONS =
+            new WeakHashMap<Job<?, ?>, SoftReference<List<Action>>>();
+
+    private ProjectActions() {}
+
+    static GatlingProjectAction getProjectAction(Job<?, ?> job) {
+        synchronized (PROJECT_ACTIONS) {
+            SoftReference<GatlingProjectAction> cached = PROJECT_ACTIONS.get(job);
+            GatlingProjectAction action = cached != null ? cached.get() : null;
+            if (action == null) {
+                action = new GatlingProjectAction(job);
+                PROJECT_ACTIONS.put(job, new SoftReference<GatlingProjectAction>(action));
+            }
+            return action;
+        }
+    }
+
+    /**
+     * @return the actions last created by {@link GatlingPublisher#getProjectActions}, or null if there are none
+     */
+    static List<Action> getPublisherActions(Job<?, ?> job) {
+        synchronized (PUBLISHER_ACTIONS) {
+            SoftReference<List<Action>> cached = PUBLISHER_ACTIONS.get(job);
+            return cached != null ? cached.get() : null;
+        }
+    }
+
+    static void putPublisherActions(Job<?, ?> job, List<Action> actions) {
+        synchronized (PUBLISHER_ACTIONS) {
+            PUBLISHER_ACTIONS.put(job, new SoftReference<List<Action>>(actions));
+        }
+    }
+
+    /**
+     * Drops the actions that depend on the last builds of the job.
+     */
+    static void invalidate(Job<?, ?> job) {
+        synchronized (PUBLISHER_ACTIONS) {
+            PUBLISHER_ACTIONS.remove(job);
+        }
+    }
+
+    /**
+     * Drops all the actions of a deleted or moved job.
+     */
+    static void remove(Job<?, ?> job) {
+        synchronized (PROJECT_ACTIONS) {
+            PROJECT_ACTIONS.remove(job);
+        }
+        invalidate(job);
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import hudson.util.DirScanner;
+import hudson.util.io.Archiver;
+import hudson.util.io.ArchiverFactory;
+import hudson.util.io.FileVisitor;
+import jenkins.MasterToSlaveFileCallable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Runs on the node holding the workspace, and does all the work needed to
+ * archive the Gatling reports of a build in a single round trip: it looks for
+ * the report folders, keeps the ones written after the build started, and
+ * streams them all back as one gzipped tar to {@code out}.
+ *
+ * Each report folder is stored in the tar under its own name, along with the
+ * simulation source files matching {@code sourceFilePattern}, if any.
+ */
+public class ReportCollector extends MasterToSlaveFileCallable<List<ReportFolder>> {
+
+    private static final long serialVersionUID = 1L;
+
+    static final String STATS_FILE_PATTERN = "**/global_stats.json";
+
+    private final long buildStartTime;
+    private final String sourceFilePattern;
+    private final OutputStream out;
+
+    /**
+     * @param buildStartTime only the report folders modified after this time are collected
+     * @param sourceFilePattern Ant pattern of the simulation source files to add to each report, may be null
+     * @param out where to write the tar, typically a {@link hudson.remoting.RemoteOutputStream}
+     */
+    public ReportCollector(long buildStartTime, String sourceFilePattern, OutputStream out) {
+        this.buildStartTime = buildStartTime;
+        this.sourceFilePattern = sourceFilePattern;
+        this.out = out;
+    }
+
+    public List<ReportFolder> invoke(File workspace, VirtualChannel channel) throws IOException, InterruptedException {
+        List<File> reportDirectories = findReportDirectories(workspace);
+        List<File> sourceFiles = reportDirectories.isEmpty()
+                ? Collections.<File>emptyList()
+                : findFiles(workspace, sourceFilePattern);
+
+        List<ReportFolder> folders = new ArrayList<ReportFolder>();
+        Archiver archiver = ArchiverFactory.TARGZ.create(out);
+        try {
+            for (File reportDirectory : reportDirectories) {
+                PrefixingVisitor visitor = new PrefixingVisitor(archiver, reportDirectory.getName());
+                new DirScanner.Full().scan(reportDirectory, visitor);
+                for (File sourceFile : sourceFiles) {
+                    visitor.visit(sourceFile, sourceFile.getName());
+                }
+                folders.add(new ReportFolder(reportDirectory.getName(), reportDirectory.lastModified(), visitor.size));
+            }
+        } finally {
+            archiver.close();
+        }
+        return folders;
+    }
+
+    private List<File> findReportDirectories(File workspace) throws IOException, InterruptedException {
+        // sorted by path, so that reports are always archived in the same order
+        Set<File> reportDirectories = new TreeSet<File>();
+        for (File statsFile : findFiles(workspace, STATS_FILE_PATTERN)) {
+            File reportDirectory = statsFile.getParentFile().getParentFile();
+            if (reportDirectory.lastModified() > buildStartTime) {
+                reportDirectories.add(reportDirectory);
+            }
+        }
+        return new ArrayList<File>(reportDirectories);
+    }
+
+    private static List<File> findFiles(File workspace, String pattern) throws IOException, InterruptedException {
+        List<File> files = new ArrayList<File>();
+        if (pattern != null) {
+            for (FilePath file : new FilePath(workspace).list(pattern)) {
+                files.add(new File(file.getRemote()));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Adds the visited files to the archive under a given folder, keeping
+     * track of the number of bytes archived.
+     */
+    private static final class PrefixingVisitor extends FileVisitor {
+
+        private final Archiver archiver;
+        private final String prefix;
+        private long size;
+
+        PrefixingVisitor(Archiver archiver, String prefix) {
+            this.archiver = archiver;
+            this.prefix = prefix;
+        }
+
+        @Override
+        public void visit(File f, String relativePath) throws IOException {
+            if (f.isFile()) {
+                size += f.length();
+            }
+            archiver.visit(f, prefix + '/' + relativePath);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzips the bulkiest files of an archived report in place: {@code foo.log}
+ * becomes {@code foo.log.gz}. {@link ReportRenderer} serves such files
+ * under their original name.
+ */
+public final class ReportCompressor {
+
+    static final String SUFFIX = ".gz";
+
+    private static final String SIMULATION_LOG = "simulation.log";
+
+    // the simulation sources are left alone, they are small and read as is by ReportRenderer
+    private static final Set<String> TEXT_EXTENSIONS = new HashSet<String>(Arrays.asList(
+            "html", "js", "css", "json", "log", "csv", "txt", "xml", "svg"));
+
+    private ReportCompressor() {
+    }
+
+    /**
+     * @param reportDirectory the directory of the archived report
+     * @param allTextAssets whether to compress all the text files of the report, not only {@code simulation.log}
+     * @return the number of bytes saved
+     */
+    public static long compress(File reportDirectory, boolean allTextAssets) throws IOException {
+        File[] children = reportDirectory.listFiles();
+        if (children == null) {
+            throw new IOException("Could not list directory '" + reportDirectory + "'");
+        }
+        long saved = 0;
+        for (File child : children) {
+            if (child.isDirectory()) {
+                saved += compress(child, allTextAssets);
+            } else if (shouldCompress(child.getName(), allTextAssets)) {
+                saved += compressFile(child);
+            }
+        }
+        return saved;
+    }
+
+    static boolean shouldCompress(String fileName, boolean allTextAssets) {
+        if (fileName.equals(SIMULATION_LOG)) {
+            return true;
+        }
+        int dotIndex = fileName.lastIndexOf('.');
+        return allTextAssets && dotIndex >= 0 && TEXT_EXTENSIONS.contains(fileName.substring(dotIndex + 1));
+    }
+
+    private static long compressFile(File file) throws IOException {
+        File compressed = new File(file.getParentFile(), file.getName() + SUFFIX);
+        InputStream in = new FileInputStream(file);
+        try {
+            OutputStream out = new GZIPOutputStream(new FileOutputStream(compressed), 64 * 1024);
+            try {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+        long saved = file.length() - compressed.length();
+        compressed.setLastModified(file.lastModified());
+        Files.delete(file.toPath());
+        return saved;
+    }
+}
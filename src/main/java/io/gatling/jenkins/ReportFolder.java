@@ -0,0 +1,64 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import java.io.Serializable;
+
+/**
+ * Metadata about a Gatling report folder found in the workspace by
+ * {@link ReportCollector}, so that the controller doesn't have to go back to
+ * the agent to learn about it.
+ */
+public class ReportFolder implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+    private final long lastModified;
+    private final long size;
+
+    public ReportFolder(String name, long lastModified, long size) {
+        this.name = name;
+        this.lastModified = lastModified;
+        this.size = size;
+    }
+
+    /**
+     * @return the folder name, e.g. "mysimulation-1431023355832"
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the simulation name, i.e. the folder name without its timestamp suffix
+     */
+    public String getSimulationName() {
+        int dashIndex = name.lastIndexOf('-');
+        return dashIndex > 0 ? name.substring(0, dashIndex) : name;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return the total size in bytes of the files archived for this folder
+     */
+    public long getSize() {
+        return size;
+    }
+}
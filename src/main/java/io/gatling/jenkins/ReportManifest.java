@@ -0,0 +1,238 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Lists the files of an archived report whose content lives in a
+ * {@link BlobStore}: each line of the manifest maps the path of a file in the
+ * report to the hash of its content.
+ *
+ * When a report is deduplicated, its simulation directory only keeps this
+ * manifest, and the report is served by resolving paths through it.
+ */
+public class ReportManifest {
+
+    static final String FILE_NAME = "gatling-manifest.txt";
+
+    private static final int CACHE_SIZE = 64;
+
+    // report pages request dozens of files, don't parse the manifest again for each of them
+    private static final Map<File, ReportManifest> CACHE = new LinkedHashMap<File, ReportManifest>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, ReportManifest> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final long lastModified;
+    private final SortedMap<String, String> hashesByPath;
+
+    private ReportManifest(long lastModified, SortedMap<String, String> hashesByPath) {
+        this.lastModified = lastModified;
+        this.hashesByPath = hashesByPath;
+    }
+
+    /**
+     * @return the manifest of the report archived in the given directory, or null if the report isn't deduplicated
+     */
+    public static ReportManifest load(File simulationDirectory) throws IOException {
+        File file = new File(simulationDirectory, FILE_NAME);
+        long lastModified = file.lastModified();
+        if (lastModified == 0L) {
+            return null;
+        }
+        synchronized (CACHE) {
+            ReportManifest manifest = CACHE.get(file);
+            if (manifest != null && manifest.lastModified == lastModified) {
+                return manifest;
+            }
+        }
+        ReportManifest manifest = new ReportManifest(lastModified, read(file));
+        synchronized (CACHE) {
+            CACHE.put(file, manifest);
+        }
+        return manifest;
+    }
+
+    /**
+     * Copies all the files of a report into the blob store, and replaces them
+     * with a manifest.
+     */
+    public static ReportManifest create(File simulationDirectory, BlobStore store) throws IOException {
+        return create(Collections.singletonList(simulationDirectory), store).get(0);
+    }
+
+    /**
+     * Copies all the files of the reports of a build into the blob store, and
+     * replaces them with a manifest per report. The reference counts of the
+     * store are updated once for all the reports. The files of the reports are
+     * only deleted once all the manifests are written, and the reports are
+     * left as they were if the store or a manifest can't be written.
+     *
+     * @return the manifests, in the same order as the directories
+     */
+    public static List<ReportManifest> create(List<File> simulationDirectories, BlobStore store) throws IOException {
+        List<List<String>> pathsByReport = new ArrayList<List<String>>(simulationDirectories.size());
+        List<File> files = new ArrayList<File>();
+        for (File simulationDirectory : simulationDirectories) {
+            List<String> paths = new ArrayList<String>();
+            listFiles(simulationDirectory, "", paths, files);
+            pathsByReport.add(paths);
+        }
+
+        List<String> hashes = store.add(files);
+        List<ReportManifest> manifests = new ArrayList<ReportManifest>(simulationDirectories.size());
+        List<File> written = new ArrayList<File>(simulationDirectories.size());
+        try {
+            int offset = 0;
+            for (int r = 0; r < simulationDirectories.size(); r++) {
+                List<String> paths = pathsByReport.get(r);
+                SortedMap<String, String> hashesByPath = new TreeMap<String, String>();
+                for (int i = 0; i < paths.size(); i++) {
+                    hashesByPath.put(paths.get(i), hashes.get(offset + i));
+                }
+                offset += paths.size();
+
+                File file = new File(simulationDirectories.get(r), FILE_NAME);
+                write(file, hashesByPath);
+                written.add(file);
+                manifests.add(new ReportManifest(file.lastModified(), hashesByPath));
+            }
+        } catch (IOException e) {
+            // the reports keep their files
+            for (File file : written) {
+                file.delete();
+            }
+            try {
+                store.release(hashes);
+            } catch (IOException releaseFailure) {
+                e.addSuppressed(releaseFailure);
+            }
+            throw e;
+        }
+
+        for (File file : files) {
+            Files.deleteIfExists(file.toPath());
+        }
+        for (File simulationDirectory : simulationDirectories) {
+            deleteEmptyDirectories(simulationDirectory);
+        }
+        return manifests;
+    }
+
+    /**
+     * @param path a path relative to the report directory, using '/' as separator
+     * @return the file holding the content of this path, or null if the report has no such file
+     */
+    public File resolve(BlobStore store, String path) {
+        String hash = hashesByPath.get(path);
+        return hash == null ? null : store.get(hash);
+    }
+
+    public Collection<String> getPaths() {
+        return Collections.unmodifiableSet(hashesByPath.keySet());
+    }
+
+    public Collection<String> getHashes() {
+        return Collections.unmodifiableCollection(hashesByPath.values());
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    private static void listFiles(File directory, String prefix, List<String> paths, List<File> files) throws IOException {
+        File[] children = directory.listFiles();
+        if (children == null) {
+            throw new IOException("Could not list directory '" + directory + "'");
+        }
+        for (File child : children) {
+            String path = prefix + child.getName();
+            if (child.isDirectory()) {
+                listFiles(child, path + '/', paths, files);
+            } else if (!path.equals(FILE_NAME)) {
+                paths.add(path);
+                files.add(child);
+            }
+        }
+    }
+
+    private static void deleteEmptyDirectories(File directory) throws IOException {
+        File[] children = directory.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                deleteEmptyDirectories(child);
+                Files.deleteIfExists(child.toPath());
+            }
+        }
+    }
+
+    private static SortedMap<String, String> read(File file) throws IOException {
+        SortedMap<String, String> hashesByPath = new TreeMap<String, String>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(' ');
+                if (separator > 0) {
+                    hashesByPath.put(line.substring(separator + 1), line.substring(0, separator));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return hashesByPath;
+    }
+
+    private static void write(File file, SortedMap<String, String> hashesByPath) throws IOException {
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), "UTF-8"));
+        try {
+            for (Map.Entry<String, String> entry : hashesByPath.entrySet()) {
+                writer.write(entry.getValue());
+                writer.write(' ');
+                writer.write(entry.getKey());
+                writer.write('\n');
+            }
+        } finally {
+            writer.close();
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,235 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Parses the JSON files of a Gatling report.
+ *
+ * The readers are built once and shared, so this class is safe to use from
+ * several archiving threads at the same time. Files are looked up by their
+ * known location in the report, falling back to a search of the report
+ * directory for older layouts, and may have been gzipped by the
+ * {@link ReportCompressor}.
+ */
+public final class ReportParser {
+
+    public static final String GLOBAL_STATS_PATH = "js/global_stats.json";
+    public static final String STATS_PATH = "js/stats.json";
+    public static final String ASSERTIONS_PATH = "js/assertions.json";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final ObjectReader REQUEST_REPORT_READER = MAPPER.reader(RequestReport.class);
+    private static final ObjectReader ASSERTIONS_READER = MAPPER.reader(AssertionsData.class);
+
+    private ReportParser() {}
+
+    /**
+     * Reads the global statistics of a report, from global_stats.json or, when
+     * it is missing, from the global section of stats.json.
+     */
+    public static RequestReport readGlobalStats(File reportDirectory) throws IOException {
+        File file = locate(reportDirectory, GLOBAL_STATS_PATH);
+        if (file != null) {
+            InputStream in = open(file);
+            try {
+                return REQUEST_REPORT_READER.readValue(in);
+            } finally {
+                in.close();
+            }
+        }
+        file = locate(reportDirectory, STATS_PATH);
+        if (file != null) {
+            InputStream in = open(file);
+            try {
+                return readGlobalStatsFromStats(in);
+            } finally {
+                in.close();
+            }
+        }
+        throw new FileNotFoundException("Unable to locate the simulation results in " + reportDirectory);
+    }
+
+    /**
+     * Streams through a stats.json document and binds its global statistics,
+     * skipping the statistics of the individual requests.
+     */
+    static RequestReport readGlobalStatsFromStats(InputStream in) throws IOException {
+        JsonParser parser = MAPPER.getFactory().createParser(in);
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected content in " + STATS_PATH);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("stats".equals(field)) {
+                    return REQUEST_REPORT_READER.readValue(parser);
+                }
+                parser.skipChildren();
+            }
+            throw new IOException("No global statistics in " + STATS_PATH);
+        } finally {
+            parser.close();
+        }
+    }
+
+    /**
+     * Streams through the stats.json document of a report and binds the
+     * statistics of each request, including the requests inside groups.
+     *
+     * @return the statistics of the requests by path, in report order, or an
+     * empty map if the report has no stats.json
+     */
+    public static Map<String, RequestReport> readRequestStats(File reportDirectory) throws IOException {
+        Map<String, RequestReport> requests = new LinkedHashMap<String, RequestReport>();
+        File file = locate(reportDirectory, STATS_PATH);
+        if (file == null) {
+            return requests;
+        }
+        InputStream in = open(file);
+        try {
+            JsonParser parser = MAPPER.getFactory().createParser(in);
+            try {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IOException("Unexpected content in " + STATS_PATH);
+                }
+                readStatsEntry(parser, requests);
+            } finally {
+                parser.close();
+            }
+        } finally {
+            in.close();
+        }
+        return requests;
+    }
+
+    /**
+     * Reads a request or group entry of stats.json, from its START_OBJECT token.
+     */
+    private static void readStatsEntry(JsonParser parser, Map<String, RequestReport> requests) throws IOException {
+        String type = null;
+        String name = null;
+        String path = null;
+        RequestReport stats = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ("type".equals(field)) {
+                type = parser.getText();
+            } else if ("name".equals(field)) {
+                name = parser.getText();
+            } else if ("path".equals(field)) {
+                path = parser.getText();
+            } else if ("stats".equals(field) && token == JsonToken.START_OBJECT) {
+                stats = REQUEST_REPORT_READER.readValue(parser);
+            } else if ("contents".equals(field) && token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    if (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readStatsEntry(parser, requests);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if ("REQUEST".equals(type) && stats != null) {
+            requests.put(path != null && !path.isEmpty() ? path : name, stats);
+        }
+    }
+
+    /**
+     * @return the assertions of a report, or null if the report has none
+     */
+    public static AssertionsData readAssertions(File reportDirectory) throws IOException {
+        File file = locate(reportDirectory, ASSERTIONS_PATH);
+        if (file == null) {
+            return null;
+        }
+        InputStream in = open(file);
+        try {
+            return ASSERTIONS_READER.readValue(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * @return the file at the given path of the report, or the first file with
+     * the same name found in the report, or null if there is none
+     */
+    static File locate(File reportDirectory, String path) {
+        File file = existing(new File(reportDirectory, path));
+        if (file != null) {
+            return file;
+        }
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        Deque<File> directories = new ArrayDeque<File>();
+        directories.add(reportDirectory);
+        while (!directories.isEmpty()) {
+            File directory = directories.poll();
+            file = existing(new File(directory, name));
+            if (file != null) {
+                return file;
+            }
+            File[] children = directory.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    if (child.isDirectory()) {
+                        directories.add(child);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static File existing(File file) {
+        if (file.isFile()) {
+            return file;
+        }
+        File compressed = new File(file.getPath() + ReportCompressor.SUFFIX);
+        return compressed.isFile() ? compressed : null;
+    }
+
+    private static InputStream open(File file) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(file), 64 * 1024);
+        if (file.getName().endsWith(ReportCompressor.SUFFIX)) {
+            in = new GZIPInputStream(in);
+        }
+        return in;
+    }
+}
@@ -26,11 +26,17 @@ import org.kohsuke.stapler.StaplerRequest;
 import org.kohsuke.stapler.StaplerResponse;
 
 import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
 import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 import hudson.FilePath;
 
 /**
@@ -39,6 +45,8 @@ import hudson.FilePath;
  */
 public class ReportRenderer {
 
+    private static final String DEFAULT_CSP = "sandbox; default-src 'none'; img-src 'self'; style-src 'self';";
+
     private GatlingBuildAction action;
     private BuildSimulation simulation;
 
@@ -80,19 +88,139 @@ public class ReportRenderer {
      */
     public void doSource(StaplerRequest request, StaplerResponse response)
             throws IOException, ServletException {
+        File simulationDirectory = getSimulationDirectory();
+        ReportManifest manifest = ReportManifest.load(simulationDirectory);
+        if (manifest != null || isCompressedFile(simulationDirectory, getRequestedPath(request))) {
+            serveReportFile(manifest, simulationDirectory, request, response);
+            return;
+        }
         DirectoryBrowserSupport dbs = new DirectoryBrowserSupport(action,
                 simulation.getSimulationDirectory(),
                 simulation.getSimulationName(), null, false);
         dbs.generateResponse(request, response, action);
     }
 
+    /**
+     * @return the path of the requested file relative to the report directory,
+     * or null when the request doesn't point inside the report directory
+     */
+    private static String getRequestedPath(StaplerRequest request) {
+        String path = request.getRestOfPath();
+        if (path.isEmpty()) {
+            return null;
+        }
+        path = path.substring(1);
+        if (path.isEmpty() || path.endsWith("/")) {
+            path += "index.html";
+        }
+        return path;
+    }
 
-	private String getSourceCodeContent(FilePath[] files) throws InterruptedException,IOException {
+    private static boolean isCompressedFile(File simulationDirectory, String path) {
+        return path != null && !new File(simulationDirectory, path).exists()
+                && new File(simulationDirectory, path + ReportCompressor.SUFFIX).isFile();
+    }
+
+    /**
+     * Serves a file of a deduplicated report from the job's {@link BlobStore}, or a file
+     * compressed by the {@link ReportCompressor}, which is decompressed on the fly
+     * when the client doesn't accept gzip encoded content.
+     */
+    private void serveReportFile(ReportManifest manifest, File simulationDirectory, StaplerRequest request, StaplerResponse response)
+            throws IOException, ServletException {
+        String path = getRequestedPath(request);
+        if (path == null) {
+            // make the relative links of the report work
+            response.sendRedirect2(request.getRequestURI() + '/');
+            return;
+        }
+        if (path.contains("\\") || ("/" + path + "/").contains("/../")) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+
+        boolean compressed = false;
+        File file = resolve(manifest, simulationDirectory, path);
+        if (file == null) {
+            file = resolve(manifest, simulationDirectory, path + ReportCompressor.SUFFIX);
+            compressed = true;
+        }
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        long lastModified = manifest != null ? manifest.getLastModified() : file.lastModified();
+
+        // same restrictions as for the reports served by DirectoryBrowserSupport
+        String csp = System.getProperty(DirectoryBrowserSupport.class.getName() + ".CSP", DEFAULT_CSP);
+        if (!csp.trim().isEmpty()) {
+            response.setHeader("Content-Security-Policy", csp);
+            response.setHeader("X-WebKit-CSP", csp);
+            response.setHeader("X-Content-Security-Policy", csp);
+        }
+        InputStream in = new FileInputStream(file);
+        try {
+            if (!compressed) {
+                response.serveFile(request, in, lastModified, file.length(), path);
+                return;
+            }
+            response.setHeader("Vary", "Accept-Encoding");
+            String acceptEncoding = request.getHeader("Accept-Encoding");
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                serveGzippedFile(request, response, in, lastModified, file.length(), path);
+            } else {
+                response.serveFile(request, new GZIPInputStream(in), lastModified, -1L, path);
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Sends the gzipped bytes of a file as they are. {@link StaplerResponse#serveFile}
+     * can't be used here, as it compresses text content itself for the clients that
+     * accept gzip, which would compress it twice.
+     */
+    private static void serveGzippedFile(StaplerRequest request, StaplerResponse response, InputStream in,
+                                         long lastModified, long length, String path) throws IOException {
+        // dates of HTTP headers have a precision of a second
+        long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+        if (ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        String contentType = request.getServletContext().getMimeType(path);
+        response.setContentType(contentType != null ? contentType : "application/octet-stream");
+        response.setHeader("Content-Encoding", "gzip");
+        response.setHeader("Content-Length", Long.toString(length));
+        response.setDateHeader("Last-Modified", lastModified);
+        OutputStream out = response.getOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        out.flush();
+    }
+
+    private File resolve(ReportManifest manifest, File simulationDirectory, String path) {
+        File file = manifest != null
+                ? manifest.resolve(BlobStore.forJob(action.getRun().getParent()), path)
+                : new File(simulationDirectory, path);
+        return file != null && file.isFile() ? file : null;
+    }
+
+    private File getSimulationDirectory() {
+        return new File(simulation.getSimulationDirectory().getRemote());
+    }
+
+
+	private String getSourceCodeContent(List<File> files) throws InterruptedException,IOException {
 
 		StringBuilder filecontent = new StringBuilder();
 
-		for (FilePath file : files) {
-			BufferedReader br = new BufferedReader(new FileReader(file.getRemote()));
+		for (File file : files) {
+			BufferedReader br = new BufferedReader(new FileReader(file));
 			String line = br.readLine();
 			while (line != null) {
 				filecontent.append(line);
@@ -105,12 +233,12 @@ public class ReportRenderer {
 		return filecontent.toString();
 	}
 
-	private String getSourceCodeClassName(FilePath[] files) throws InterruptedException,IOException {
+	private String getSourceCodeClassName(List<String> names) throws InterruptedException,IOException {
 
 		StringBuilder classname = new StringBuilder();
 
-		for (FilePath file : files) {
-			classname.append(file.getName());
+		for (String name : names) {
+			classname.append(name);
 		}
 
 		return classname.toString();
@@ -131,10 +259,26 @@ public class ReportRenderer {
 	 */
 	public void doSimulationclasssource(StaplerRequest request, StaplerResponse response)
 		throws IOException, InterruptedException, ServletException {
-		FilePath simulationDir = simulation.getSimulationDirectory();
-		FilePath[] simulationClassSourceFiles = simulationDir.list("**/*.scala");
+		List<File> simulationClassSourceFiles = new ArrayList<File>();
+		List<String> simulationClassSourceNames = new ArrayList<String>();
+		ReportManifest manifest = ReportManifest.load(getSimulationDirectory());
+		if (manifest != null) {
+			BlobStore store = BlobStore.forJob(action.getRun().getParent());
+			for (String path : manifest.getPaths()) {
+				if (path.endsWith(".scala")) {
+					simulationClassSourceFiles.add(manifest.resolve(store, path));
+					simulationClassSourceNames.add(path.substring(path.lastIndexOf('/') + 1));
+				}
+			}
+		} else {
+			FilePath simulationDir = simulation.getSimulationDirectory();
+			for (FilePath file : simulationDir.list("**/*.scala")) {
+				simulationClassSourceFiles.add(new File(file.getRemote()));
+				simulationClassSourceNames.add(file.getName());
+			}
+		}
 		String filecontent = getSourceCodeContent(simulationClassSourceFiles);
-		String simulationClass = getSourceCodeClassName(simulationClassSourceFiles);
+		String simulationClass = getSourceCodeClassName(simulationClassSourceNames);
 		ForwardToView forward = new ForwardToView(action, "simulationclasssource.jelly")
 			.with("simName", simulation.getSimulationName()).with("simulationClass",simulationClass).with("filecontent",filecontent);
 		forward.generateResponse(request, response, action);
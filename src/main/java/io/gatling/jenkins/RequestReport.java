@@ -15,39 +15,51 @@
  */
 package io.gatling.jenkins;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.thoughtworks.xstream.converters.Converter;
+import com.thoughtworks.xstream.converters.MarshallingContext;
+import com.thoughtworks.xstream.converters.UnmarshallingContext;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
 
+/**
+ * The statistics of a request, or of all the requests, of a simulation.
+ *
+ * Many of them are kept in memory, one per simulation of each loaded build,
+ * so they are stored compactly: the total/ok/ko values of every statistic
+ * are kept in a single array, along with the count and the percentage of
+ * every response time group, and the group names are interned. The
+ * {@link Statistics} and {@link ResponseTimeGroup} returned by the getters
+ * are read-only views created on demand, whose setters throw an
+ * {@link UnsupportedOperationException}: a statistic is changed by setting
+ * it again on the report.
+ *
+ * The build.xml of the builds archived by older versions has a separate
+ * element per statistic, which the {@link ConverterImpl} reads and writes.
+ */
 public class RequestReport {
 
-	private String name;
-	private Statistics numberOfRequests;
-	private Statistics minResponseTime;
-	private Statistics maxResponseTime;
-	private Statistics meanResponseTime;
-	private Statistics standardDeviation;
-	private Statistics percentiles95;
-	private Statistics percentiles99;
-	@JsonProperty("percentiles1")
-	private Statistics percentiles1;
-	@JsonProperty("percentiles2")
-	private Statistics percentiles2;
-	@JsonProperty("percentiles3")
-	private Statistics percentiles3;
-	@JsonProperty("percentiles4")
-	private Statistics percentiles4;
-	private Statistics meanNumberOfRequestsPerSecond;
-	private ResponseTimeGroup group1;
-	private ResponseTimeGroup group2;
-	private ResponseTimeGroup group3;
-	private ResponseTimeGroup group4;
-
-	public Statistics getNumberOfRequests() {
-		return numberOfRequests;
-	}
+	private static final int NUMBER_OF_REQUESTS = 0;
+	private static final int MIN_RESPONSE_TIME = 1;
+	private static final int MAX_RESPONSE_TIME = 2;
+	private static final int MEAN_RESPONSE_TIME = 3;
+	private static final int STANDARD_DEVIATION = 4;
+	private static final int PERCENTILES_1 = 5;
+	private static final int PERCENTILES_2 = 6;
+	private static final int PERCENTILES_3 = 7;
+	private static final int PERCENTILES_4 = 8;
+	private static final int MEAN_NUMBER_OF_REQUESTS_PER_SECOND = 9;
+	private static final int STATISTICS = 10;
+	private static final int GROUPS = 4;
+
+	// the element names of the statistics in build.xml, by index
+	private static final String[] STATISTIC_NAMES = {"numberOfRequests", "minResponseTime", "maxResponseTime", "meanResponseTime", "standardDeviation", "percentiles1", "percentiles2", "percentiles3", "percentiles4", "meanNumberOfRequestsPerSecond"};
 
-	public void setNumberOfRequests(Statistics numberOfRequests) {
-		this.numberOfRequests = numberOfRequests;
-	}
+	private String name;
+	// total, ok and ko of each statistic, then count and percentage of each group
+	private final long[] values = new long[STATISTICS * 3 + GROUPS * 2];
+	// the statistics and the groups that are set, statistics first
+	private int present;
+	private final String[] groupNames = new String[GROUPS];
 
 	public String getName() {
 		return name;
@@ -57,134 +69,343 @@ public class RequestReport {
 		this.name = name;
 	}
 
+	public Statistics getNumberOfRequests() {
+		return getStatistics(NUMBER_OF_REQUESTS);
+	}
+
+	public void setNumberOfRequests(Statistics numberOfRequests) {
+		setStatistics(NUMBER_OF_REQUESTS, numberOfRequests);
+	}
+
 	public Statistics getMinResponseTime() {
-		return minResponseTime;
+		return getStatistics(MIN_RESPONSE_TIME);
 	}
 
 	public void setMinResponseTime(Statistics minResponseTime) {
-		this.minResponseTime = minResponseTime;
+		setStatistics(MIN_RESPONSE_TIME, minResponseTime);
 	}
 
 	public Statistics getMaxResponseTime() {
-		return maxResponseTime;
+		return getStatistics(MAX_RESPONSE_TIME);
 	}
 
 	public void setMaxResponseTime(Statistics maxResponseTime) {
-		this.maxResponseTime = maxResponseTime;
+		setStatistics(MAX_RESPONSE_TIME, maxResponseTime);
 	}
 
 	public Statistics getMeanResponseTime() {
-		return meanResponseTime;
+		return getStatistics(MEAN_RESPONSE_TIME);
 	}
 
 	public void setMeanResponseTime(Statistics meanResponseTime) {
-		this.meanResponseTime = meanResponseTime;
+		setStatistics(MEAN_RESPONSE_TIME, meanResponseTime);
 	}
 
 	public Statistics getStandardDeviation() {
-		return standardDeviation;
+		return getStatistics(STANDARD_DEVIATION);
 	}
 
 	public void setStandardDeviation(Statistics standardDeviation) {
-		this.standardDeviation = standardDeviation;
+		setStatistics(STANDARD_DEVIATION, standardDeviation);
 	}
 
+	// the 95th and 99th percentiles of older reports are the third and fourth percentiles
 	public Statistics getPercentiles95() {
-		return percentiles3;
+		return getStatistics(PERCENTILES_3);
 	}
 
 	public void setPercentiles95(Statistics percentiles95) {
-		this.percentiles3 = percentiles95;
+		setStatistics(PERCENTILES_3, percentiles95);
 	}
 
 	public Statistics getPercentiles99() {
-		return percentiles4;
+		return getStatistics(PERCENTILES_4);
 	}
 
 	public void setPercentiles99(Statistics percentiles99) {
-		this.percentiles4 = percentiles99;
+		setStatistics(PERCENTILES_4, percentiles99);
 	}
 
 	public Statistics getPercentiles1() {
-		return percentiles1;
+		return getStatistics(PERCENTILES_1);
 	}
 
 	public void setPercentiles1(Statistics percentiles1) {
-		this.percentiles1 = percentiles1;
+		setStatistics(PERCENTILES_1, percentiles1);
 	}
 
 	public Statistics getPercentiles2() {
-		return percentiles2;
+		return getStatistics(PERCENTILES_2);
 	}
 
 	public void setPercentiles2(Statistics percentiles2) {
-		this.percentiles2 = percentiles2;
+		setStatistics(PERCENTILES_2, percentiles2);
 	}
 
 	public Statistics getPercentiles3() {
-		return percentiles3;
+		return getStatistics(PERCENTILES_3);
 	}
 
 	public void setPercentiles3(Statistics percentiles3) {
-		this.percentiles3 = percentiles3;
+		setStatistics(PERCENTILES_3, percentiles3);
 	}
 
 	public Statistics getPercentiles4() {
-		return percentiles4;
+		return getStatistics(PERCENTILES_4);
 	}
 
 	public void setPercentiles4(Statistics percentiles4) {
-		this.percentiles4 = percentiles4;
+		setStatistics(PERCENTILES_4, percentiles4);
 	}
 
 	public Statistics getMeanNumberOfRequestsPerSecond() {
-		return meanNumberOfRequestsPerSecond;
+		return getStatistics(MEAN_NUMBER_OF_REQUESTS_PER_SECOND);
 	}
 
 	public void setMeanNumberOfRequestsPerSecond(Statistics meanNumberOfRequestsPerSecond) {
-		this.meanNumberOfRequestsPerSecond = meanNumberOfRequestsPerSecond;
+		setStatistics(MEAN_NUMBER_OF_REQUESTS_PER_SECOND, meanNumberOfRequestsPerSecond);
 	}
 
 	public ResponseTimeGroup getGroup1() {
-		return group1;
+		return getGroup(0);
 	}
 
 	public void setGroup1(ResponseTimeGroup group1) {
-		this.group1 = group1;
+		setGroup(0, group1);
 	}
 
 	public ResponseTimeGroup getGroup2() {
-		return group2;
+		return getGroup(1);
 	}
 
 	public void setGroup2(ResponseTimeGroup group2) {
-		this.group2 = group2;
+		setGroup(1, group2);
 	}
 
 	public ResponseTimeGroup getGroup3() {
-		return group3;
+		return getGroup(2);
 	}
 
 	public void setGroup3(ResponseTimeGroup group3) {
-		this.group3 = group3;
+		setGroup(2, group3);
 	}
 
 	public ResponseTimeGroup getGroup4() {
-		return group4;
+		return getGroup(3);
 	}
 
 	public void setGroup4(ResponseTimeGroup group4) {
-		this.group4 = group4;
+		setGroup(3, group4);
+	}
+
+	private Statistics getStatistics(int index) {
+		if ((present & (1 << index)) == 0) {
+			return null;
+		}
+		int offset = index * 3;
+		return new ReadOnlyStatistics(values[offset], values[offset + 1], values[offset + 2]);
+	}
+
+	private void setStatistics(int index, Statistics statistics) {
+		if (statistics == null) {
+			present &= ~(1 << index);
+			return;
+		}
+		int offset = index * 3;
+		values[offset] = statistics.getTotal();
+		values[offset + 1] = statistics.getOK();
+		values[offset + 2] = statistics.getKO();
+		present |= 1 << index;
+	}
+
+	private ResponseTimeGroup getGroup(int index) {
+		if ((present & (1 << (STATISTICS + index))) == 0) {
+			return null;
+		}
+		int offset = STATISTICS * 3 + index * 2;
+		return new ReadOnlyResponseTimeGroup(groupNames[index], (int) values[offset], (int) values[offset + 1]);
+	}
+
+	private void setGroup(int index, ResponseTimeGroup group) {
+		if (group == null) {
+			present &= ~(1 << (STATISTICS + index));
+			groupNames[index] = null;
+			return;
+		}
+		int offset = STATISTICS * 3 + index * 2;
+		values[offset] = group.getCount();
+		values[offset + 1] = group.getPercentage();
+		groupNames[index] = group.getName() != null ? group.getName().intern() : null;
+		present |= 1 << (STATISTICS + index);
+	}
+
+	private static final class ReadOnlyStatistics extends Statistics {
+
+		ReadOnlyStatistics(long total, long ok, long ko) {
+			super(total, ok, ko);
+		}
+
+		@Override
+		public void setTotal(long total) {
+			throw new UnsupportedOperationException("Set the statistic on the RequestReport");
+		}
+
+		@Override
+		public void setOK(long ok) {
+			throw new UnsupportedOperationException("Set the statistic on the RequestReport");
+		}
+
+		@Override
+		public void setKO(long ko) {
+			throw new UnsupportedOperationException("Set the statistic on the RequestReport");
+		}
 	}
 
-	private Object readResolve() {
-	// Migration from 1.0.3 to 1.0.4
-		if(percentiles95 != null) {
-			percentiles1 = percentiles95;
+	private static final class ReadOnlyResponseTimeGroup extends ResponseTimeGroup {
+
+		ReadOnlyResponseTimeGroup(String name, int count, int percentage) {
+			super(name, count, percentage);
+		}
+
+		@Override
+		public void setName(String name) {
+			throw new UnsupportedOperationException("Set the group on the RequestReport");
+		}
+
+		@Override
+		public void setCount(int count) {
+			throw new UnsupportedOperationException("Set the group on the RequestReport");
+		}
+
+		@Override
+		public void setPercentage(int percentage) {
+			throw new UnsupportedOperationException("Set the group on the RequestReport");
 		}
-		if(percentiles99 != null) {
-			percentiles2 = percentiles99;
+	}
+
+	private static int statisticIndex(String elementName) {
+		for (int i = 0; i < STATISTICS; i++) {
+			if (STATISTIC_NAMES[i].equals(elementName)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Reads and writes reports in build.xml with an element per statistic and
+	 * per group, as they were written when they were plain beans, so that the
+	 * build.xml of older builds still loads and stays readable by older versions.
+	 */
+	public static final class ConverterImpl implements Converter {
+
+		public boolean canConvert(Class type) {
+			return type == RequestReport.class;
+		}
+
+		public void marshal(Object source, HierarchicalStreamWriter writer, MarshallingContext context) {
+			RequestReport report = (RequestReport) source;
+			if (report.name != null) {
+				writeValue(writer, "name", report.name);
+			}
+			for (int i = 0; i < STATISTICS; i++) {
+				Statistics statistics = report.getStatistics(i);
+				if (statistics != null) {
+					writer.startNode(STATISTIC_NAMES[i]);
+					writeValue(writer, "total", Long.toString(statistics.getTotal()));
+					writeValue(writer, "ok", Long.toString(statistics.getOK()));
+					writeValue(writer, "ko", Long.toString(statistics.getKO()));
+					writer.endNode();
+				}
+			}
+			for (int i = 0; i < GROUPS; i++) {
+				ResponseTimeGroup group = report.getGroup(i);
+				if (group != null) {
+					writer.startNode("group" + (i + 1));
+					if (group.getName() != null) {
+						writeValue(writer, "name", group.getName());
+					}
+					writeValue(writer, "count", Integer.toString(group.getCount()));
+					writeValue(writer, "percentage", Integer.toString(group.getPercentage()));
+					writer.endNode();
+				}
+			}
+		}
+
+		public Object unmarshal(HierarchicalStreamReader reader, UnmarshallingContext context) {
+			RequestReport report = new RequestReport();
+			Statistics percentiles95 = null;
+			Statistics percentiles99 = null;
+			while (reader.hasMoreChildren()) {
+				reader.moveDown();
+				String element = reader.getNodeName();
+				if (element.equals("name")) {
+					report.setName(reader.getValue());
+				} else if (element.equals("percentiles95")) {
+					percentiles95 = readStatistics(reader);
+				} else if (element.equals("percentiles99")) {
+					percentiles99 = readStatistics(reader);
+				} else if (element.startsWith("group") && element.length() == 6) {
+					int index = element.charAt(5) - '1';
+					if (index >= 0 && index < GROUPS) {
+						report.setGroup(index, readGroup(reader));
+					}
+				} else {
+					int index = statisticIndex(element);
+					if (index >= 0) {
+						report.setStatistics(index, readStatistics(reader));
+					}
+				}
+				reader.moveUp();
+			}
+			// Migration from 1.0.3 to 1.0.4
+			if (percentiles95 != null) {
+				report.setPercentiles1(percentiles95);
+			}
+			if (percentiles99 != null) {
+				report.setPercentiles2(percentiles99);
+			}
+			return report;
+		}
+
+		private static void writeValue(HierarchicalStreamWriter writer, String element, String value) {
+			writer.startNode(element);
+			writer.setValue(value);
+			writer.endNode();
+		}
+
+		private static Statistics readStatistics(HierarchicalStreamReader reader) {
+			Statistics statistics = new Statistics();
+			while (reader.hasMoreChildren()) {
+				reader.moveDown();
+				String element = reader.getNodeName();
+				if (element.equals("total")) {
+					statistics.setTotal(Long.parseLong(reader.getValue()));
+				} else if (element.equals("ok")) {
+					statistics.setOK(Long.parseLong(reader.getValue()));
+				} else if (element.equals("ko")) {
+					statistics.setKO(Long.parseLong(reader.getValue()));
+				}
+				reader.moveUp();
+			}
+			return statistics;
+		}
+
+		private static ResponseTimeGroup readGroup(HierarchicalStreamReader reader) {
+			ResponseTimeGroup group = new ResponseTimeGroup();
+			while (reader.hasMoreChildren()) {
+				reader.moveDown();
+				String element = reader.getNodeName();
+				if (element.equals("name")) {
+					group.setName(reader.getValue());
+				} else if (element.equals("count")) {
+					group.setCount(Integer.parseInt(reader.getValue()));
+				} else if (element.equals("percentage")) {
+					group.setPercentage(Integer.parseInt(reader.getValue()));
+				}
+				reader.moveUp();
+			}
+			return group;
 		}
-		return this;
 	}
 }
@@ -21,6 +21,15 @@ public class ResponseTimeGroup {
 	private int count;
 	private int percentage;
 
+	public ResponseTimeGroup() {
+	}
+
+	public ResponseTimeGroup(String name, int count, int percentage) {
+		this.name = name;
+		this.count = count;
+		this.percentage = percentage;
+	}
+
 	public String getName() {
 		return name;
 	}
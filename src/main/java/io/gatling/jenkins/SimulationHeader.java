@@ -0,0 +1,69 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import io.gatling.jenkins.trend.TrendMetric;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The part of a {@link BuildSimulation} kept in build.xml: its name, the
+ * name of its archive directory and the values of the {@link TrendMetric}s
+ * of its global statistics. The rest is kept in the sidecar file of the
+ * {@link GatlingBuildAction} and only loaded when needed.
+ */
+public class SimulationHeader {
+    private final String simulationName;
+    private final String directoryName;
+    private final long[] values;
+
+    public SimulationHeader(String simulationName, String directoryName, long[] values) {
+        this.simulationName = simulationName;
+        this.directoryName = directoryName;
+        this.values = values;
+    }
+
+    static List<SimulationHeader> of(List<BuildSimulation> simulations) {
+        List<SimulationHeader> headers = new ArrayList<SimulationHeader>(simulations.size());
+        for (BuildSimulation sim : simulations) {
+            RequestReport report = sim.getRequestReport();
+            headers.add(new SimulationHeader(sim.getSimulationName(),
+                    sim.getSimulationDirectory() != null ? new File(sim.getSimulationDirectory().getRemote()).getName() : null,
+                    report != null ? TrendMetric.extractAll(report) : null));
+        }
+        return headers;
+    }
+
+    public String getSimulationName() {
+        return simulationName;
+    }
+
+    /**
+     * @return the name of the archive directory of the simulation, in the simulations directory of the build
+     */
+    public String getDirectoryName() {
+        return directoryName;
+    }
+
+    /**
+     * @return the values of the {@link TrendMetric}s, or null if the simulation had no global statistics
+     */
+    public long[] getValues() {
+        return values;
+    }
+}
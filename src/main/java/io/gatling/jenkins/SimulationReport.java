@@ -15,22 +15,16 @@
  */
 package io.gatling.jenkins;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import hudson.FilePath;
 import io.gatling.jenkins.RequestReport;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 
 public class SimulationReport {
 
 	private final FilePath reportDirectory;
 
-	private static final String STATS_FILE_PATTERN = "**/global_stats.json";
-
 	private RequestReport globalReport;
 
 	private final String simulation;
@@ -41,20 +35,7 @@ public class SimulationReport {
 	}
 
 	public void readStatsFile() throws IOException, InterruptedException {
-		ObjectMapper mapper = new ObjectMapper();
-		mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		File jsonFile = locateStatsFile();
-		globalReport = mapper.readValue(jsonFile, new TypeReference<RequestReport>() {
-		});
-	}
-
-	private File locateStatsFile() throws IOException, InterruptedException {
-		FilePath[] files = reportDirectory.list(STATS_FILE_PATTERN);
-
-		if (files.length == 0)
-			throw new FileNotFoundException("Unable to locate the simulation results for " + simulation);
-
-		return new File(files[0].getRemote());
+		globalReport = ReportParser.readGlobalStats(new File(reportDirectory.getRemote()));
 	}
 
 	public String getSimulationPath() {
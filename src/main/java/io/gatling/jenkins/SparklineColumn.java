@@ -0,0 +1,66 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *           http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import hudson.Extension;
+import hudson.model.Job;
+import hudson.views.ListViewColumn;
+import hudson.views.ListViewColumnDescriptor;
+import io.gatling.jenkins.chart.Sparkline;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+import static io.gatling.jenkins.PluginConstants.SPARKLINE_BUILDS;
+
+/**
+ * Shows the 95th percentile and KO percentage trends of the last builds of
+ * Gatling jobs in list views, as inline SVG drawn from the cached trend data.
+ */
+public class SparklineColumn extends ListViewColumn {
+
+	private final int builds;
+
+	/**
+	 * @param builds the number of builds to show, 0 for {@link PluginConstants#SPARKLINE_BUILDS}
+	 */
+	@DataBoundConstructor
+	public SparklineColumn(int builds) {
+		this.builds = builds > 0 ? builds : SPARKLINE_BUILDS;
+	}
+
+	public int getBuilds() {
+		return builds;
+	}
+
+	/**
+	 * @return the sparklines of the job, or null if it has no Gatling reports
+	 */
+	public Sparkline getSparkline(Job<?, ?> job) {
+		return Sparkline.forJob(job, builds);
+	}
+
+	@Extension
+	public static class DescriptorImpl extends ListViewColumnDescriptor {
+		@Override
+		public boolean shownByDefault() {
+			return false;
+		}
+
+		@Override
+		public String getDisplayName() {
+			return "Gatling Trend";
+		}
+	}
+}
@@ -21,6 +21,15 @@ public class Statistics {
 	private long ok;
 	private long ko;
 
+	public Statistics() {
+	}
+
+	public Statistics(long total, long ok, long ko) {
+		this.total = total;
+		this.ok = ok;
+		this.ko = ko;
+	}
+
 	public long getTotal() {
 		return total;
 	}
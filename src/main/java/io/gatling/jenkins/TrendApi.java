@@ -0,0 +1,183 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import hudson.model.Job;
+import io.gatling.jenkins.chart.ChartMetric;
+import io.gatling.jenkins.chart.Graph;
+import io.gatling.jenkins.chart.TrendDataset;
+import io.gatling.jenkins.trend.ReportPage;
+import io.gatling.jenkins.trend.TrendIndex;
+import io.gatling.jenkins.trend.TrendRecord;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+
+import static io.gatling.jenkins.PluginConstants.MAX_BUILDS_TO_DISPLAY;
+import static io.gatling.jenkins.PluginConstants.MAX_POINTS_TO_DISPLAY;
+import static io.gatling.jenkins.PluginConstants.MAX_REPORTS_PAGE_SIZE;
+import static io.gatling.jenkins.PluginConstants.REPORTS_PAGE_SIZE;
+
+/**
+ * JSON endpoints for the trend data of a job, used by {@link GatlingProjectAction}
+ * to serve `/gatling/api/...`.
+ *
+ * Responses carry an ETag made of the number of the last build with Gatling
+ * reports and of the revision of the {@link TrendIndex}, so polling clients
+ * get a 304 without the trend data being computed when nothing changed.
+ */
+public class TrendApi {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final GatlingProjectAction action;
+    private final Job<?, ?> job;
+
+    public TrendApi(GatlingProjectAction action) {
+        this.action = action;
+        this.job = action.getJob();
+    }
+
+    /**
+     * `/gatling/api/trend?metric=p95&sim=MySimulation&builds=30&points=200`:
+     * the series of a {@link ChartMetric} for the last builds, for all the
+     * simulations or only the given one, downsampled to the given number of points.
+     */
+    public void doTrend(StaplerRequest request, StaplerResponse response,
+                        @QueryParameter String metric, @QueryParameter String sim, @QueryParameter int builds,
+                        @QueryParameter int points)
+            throws IOException {
+        ChartMetric chartMetric = ChartMetric.fromId(metric == null ? ChartMetric.MEAN.getId() : metric);
+        if (chartMetric == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown metric '" + metric + "'");
+            return;
+        }
+
+        String etag = getETag();
+        response.setHeader("ETag", etag);
+        // clients may keep the response but have to revalidate it
+        response.setHeader("Cache-Control", "private, no-cache");
+        if (!isNoCache(request) && matches(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        Graph graph = Graph.forMetric(TrendDataset.forJob(job, getBuilds(builds)), chartMetric,
+                points > 0 ? points : MAX_POINTS_TO_DISPLAY);
+        response.setContentType("application/json;charset=UTF-8");
+        JsonGenerator jgen = JSON_FACTORY.createGenerator(response.getWriter());
+        try {
+            jgen.writeStartObject();
+            jgen.writeStringField("metric", chartMetric.getId());
+            jgen.writeFieldName("series");
+            graph.writeSeries(jgen, sim);
+            jgen.writeEndObject();
+        } finally {
+            jgen.close();
+        }
+    }
+
+    /**
+     * `/gatling/api/reports?before=123&size=20`: a page of the builds with
+     * Gatling reports, newest first. The `next` field of the response is the
+     * `before` parameter of the next page, or 0 after the last page.
+     */
+    public void doReports(StaplerRequest request, StaplerResponse response,
+                          @QueryParameter int before, @QueryParameter int size)
+            throws IOException {
+        String etag = getETag();
+        response.setHeader("ETag", etag);
+        response.setHeader("Cache-Control", "private, no-cache");
+        if (!isNoCache(request) && matches(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        ReportPage page = action.getReportPage(before,
+                size > 0 ? Math.min(size, MAX_REPORTS_PAGE_SIZE) : REPORTS_PAGE_SIZE);
+        response.setContentType("application/json;charset=UTF-8");
+        JsonGenerator jgen = JSON_FACTORY.createGenerator(response.getWriter());
+        try {
+            jgen.writeStartObject();
+            jgen.writeArrayFieldStart("reports");
+            for (ReportPage.Entry entry : page.getEntries()) {
+                jgen.writeStartObject();
+                jgen.writeNumberField("build", entry.getBuildNumber());
+                jgen.writeNumberField("timestamp", entry.getTimestamp());
+                jgen.writeArrayFieldStart("simulations");
+                for (String simulationName : entry.getSimulationNames()) {
+                    jgen.writeString(simulationName);
+                }
+                jgen.writeEndArray();
+                jgen.writeEndObject();
+            }
+            jgen.writeEndArray();
+            jgen.writeNumberField("next", page.getNext());
+            jgen.writeEndObject();
+        } finally {
+            jgen.close();
+        }
+    }
+
+    /**
+     * @return the number of builds asked for, within the window of the trend charts
+     */
+    static int getBuilds(int builds) {
+        if (builds <= 0) {
+            return MAX_BUILDS_TO_DISPLAY;
+        }
+        return MAX_BUILDS_TO_DISPLAY > 0 ? Math.min(builds, MAX_BUILDS_TO_DISPLAY) : builds;
+    }
+
+    private String getETag() throws IOException {
+        TrendIndex index = TrendIndex.forJob(job);
+        synchronized (index) {
+            List<TrendRecord> records = index.getRecords();
+            int lastBuildNumber = records.isEmpty() ? 0 : records.get(records.size() - 1).getBuildNumber();
+            return "\"" + lastBuildNumber + '-' + index.getRevision() + "\"";
+        }
+    }
+
+    private static boolean isNoCache(StaplerRequest request) {
+        String cacheControl = request.getHeader("Cache-Control");
+        return cacheControl != null && cacheControl.contains("no-cache");
+    }
+
+    /**
+     * @return whether an If-None-Match header matches the ETag, weakly as required for GET requests
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
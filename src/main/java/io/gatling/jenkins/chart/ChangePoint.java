@@ -0,0 +1,64 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.chart;
+
+/**
+ * A build where a metric of a simulation shifted.
+ */
+public final class ChangePoint {
+	private final String simulationName;
+	private final ChartMetric metric;
+	private final int buildNumber;
+	private final double before;
+	private final double after;
+
+	ChangePoint(String simulationName, ChartMetric metric, int buildNumber, double before, double after) {
+		this.simulationName = simulationName;
+		this.metric = metric;
+		this.buildNumber = buildNumber;
+		this.before = before;
+		this.after = after;
+	}
+
+	public String getSimulationName() {
+		return simulationName;
+	}
+
+	public ChartMetric getMetric() {
+		return metric;
+	}
+
+	/**
+	 * @return the first build after the shift
+	 */
+	public int getBuildNumber() {
+		return buildNumber;
+	}
+
+	/**
+	 * @return the mean of the metric between the previous shift and this one
+	 */
+	public long getBefore() {
+		return Math.round(before);
+	}
+
+	/**
+	 * @return the mean of the metric between this shift and the next one
+	 */
+	public long getAfter() {
+		return Math.round(after);
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.chart;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import hudson.model.Job;
+import io.gatling.jenkins.trend.TrendRecord;
+import jenkins.util.Timer;
+
+/**
+ * The builds of a job where the mean response time, the 95th percentile or
+ * the throughput of a simulation shifted, found by a {@link ChangePointDetector}
+ * over the series of a {@link TrendDataset}.
+ *
+ * The analysis runs in the background the first time it's requested for a
+ * revision of the trend index, and is cached until the index changes.
+ */
+public final class ChangePointAnalysis {
+	private static final Logger LOGGER = Logger.getLogger(ChangePointAnalysis.class.getName());
+
+	static final ChartMetric[] METRICS = {ChartMetric.MEAN, ChartMetric.PERCENTILE_3, ChartMetric.REQUESTS_PER_SECOND};
+
+	private static final Map<Job<?, ?>, ChangePointAnalysis> ANALYSES = new WeakHashMap<Job<?, ?>, ChangePointAnalysis>();
+
+	private final String revision;
+
+	private volatile List<ChangePoint> changePoints;
+
+	private ChangePointAnalysis(String revision) {
+		this.revision = revision;
+	}
+
+	/**
+	 * @param maxBuildsToDisplay the number of builds to analyze, or 0 for all of them
+	 * @return the analysis of the current builds of the job, which may still be running
+	 */
+	public static ChangePointAnalysis forJob(Job<?, ?> job, int maxBuildsToDisplay) {
+		final TrendDataset dataset = TrendDataset.forJob(job, maxBuildsToDisplay);
+		final ChangePointAnalysis analysis;
+		if (dataset.getRevision() == null) {
+			// the trend index can't be read
+			analysis = new ChangePointAnalysis(null);
+			analysis.changePoints = Collections.emptyList();
+			return analysis;
+		}
+		synchronized (ANALYSES) {
+			ChangePointAnalysis cached = ANALYSES.get(job);
+			if (cached != null && dataset.getRevision().equals(cached.revision))
+				return cached;
+			analysis = new ChangePointAnalysis(dataset.getRevision());
+			ANALYSES.put(job, analysis);
+		}
+		Timer.get().submit(new Runnable() {
+			public void run() {
+				try {
+					analysis.changePoints = analyze(dataset);
+				} catch (RuntimeException e) {
+					LOGGER.log(Level.WARNING, "Failed to find the performance shifts of the Gatling simulations", e);
+					analysis.changePoints = Collections.emptyList();
+				}
+			}
+		});
+		return analysis;
+	}
+
+	/**
+	 * @return the shifts of all the simulations, newest first
+	 */
+	static List<ChangePoint> analyze(TrendDataset dataset) {
+		List<ChangePoint> changePoints = new ArrayList<ChangePoint>();
+		for (Map.Entry<String, List<TrendRecord>> entry : dataset.getRecordsBySimulation().entrySet()) {
+			List<TrendRecord> records = entry.getValue();
+			int size = records.size();
+			for (ChartMetric metric : METRICS) {
+				// the records are newest first, the detector wants the oldest first
+				double[] values = new double[size];
+				for (int i = 0; i < size; i++) {
+					values[i] = metric.getValue(records.get(size - 1 - i));
+				}
+				List<Integer> shifts = ChangePointDetector.detect(values);
+				for (int i = 0; i < shifts.size(); i++) {
+					int shift = shifts.get(i);
+					int start = i > 0 ? shifts.get(i - 1) : 0;
+					int end = i < shifts.size() - 1 ? shifts.get(i + 1) : size;
+					changePoints.add(new ChangePoint(entry.getKey(), metric, records.get(size - 1 - shift).getBuildNumber(),
+							mean(values, start, shift), mean(values, shift, end)));
+				}
+			}
+		}
+		Collections.sort(changePoints, new Comparator<ChangePoint>() {
+			public int compare(ChangePoint o1, ChangePoint o2) {
+				return o1.getBuildNumber() > o2.getBuildNumber() ? -1 : (o1.getBuildNumber() == o2.getBuildNumber() ? 0 : 1);
+			}
+		});
+		return changePoints;
+	}
+
+	private static double mean(double[] values, int start, int end) {
+		double sum = 0;
+		for (int i = start; i < end; i++) {
+			sum += values[i];
+		}
+		return sum / (end - start);
+	}
+
+	/**
+	 * @return whether the analysis is still running
+	 */
+	public boolean isRunning() {
+		return changePoints == null;
+	}
+
+	/**
+	 * @return the shifts of all the simulations, newest first, or an empty list while the analysis is running
+	 */
+	public List<ChangePoint> getChangePoints() {
+		List<ChangePoint> result = changePoints;
+		return result != null ? Collections.unmodifiableList(result) : Collections.<ChangePoint>emptyList();
+	}
+}
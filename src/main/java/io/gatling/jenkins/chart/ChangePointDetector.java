@@ -0,0 +1,123 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.chart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds the points where the mean of a series shifts, by binary
+ * segmentation: the series is split where the CUSUM statistic of a mean
+ * shift is the highest, if it is significant, and both sides are split again
+ * the same way.
+ *
+ * The noise level the statistic is compared with is estimated from the
+ * median of the differences between consecutive values, so that it isn't
+ * inflated by the shifts themselves.
+ */
+public final class ChangePointDetector {
+
+	/**
+	 * The number of noise standard deviations the statistic of a shift must exceed.
+	 */
+	static final double THRESHOLD = 4;
+
+	/**
+	 * The minimal relative change of the mean for a shift to be reported.
+	 */
+	static final double MIN_RELATIVE_CHANGE = 0.05;
+
+	/**
+	 * The minimal number of points on each side of a shift.
+	 */
+	static final int MIN_SEGMENT_LENGTH = 3;
+
+	// the ratio of the median absolute deviation to the standard deviation of a normal distribution,
+	// times the standard deviation of the difference of two values
+	private static final double MEDIAN_DIFFERENCE_TO_DEVIATION = 0.6745 * Math.sqrt(2);
+
+	private final double[] prefixSums;
+
+	private final double noise;
+
+	private final List<Integer> changePoints = new ArrayList<Integer>();
+
+	private ChangePointDetector(double[] values) {
+		prefixSums = new double[values.length + 1];
+		for (int i = 0; i < values.length; i++) {
+			prefixSums[i + 1] = prefixSums[i] + values[i];
+		}
+		noise = estimateNoise(values);
+	}
+
+	/**
+	 * @param values the values of a series, oldest first
+	 * @return the indices of the first values after each shift, in increasing order
+	 */
+	public static List<Integer> detect(double[] values) {
+		if (values.length < 2 * MIN_SEGMENT_LENGTH)
+			return Collections.emptyList();
+		ChangePointDetector detector = new ChangePointDetector(values);
+		detector.segment(0, values.length);
+		Collections.sort(detector.changePoints);
+		return detector.changePoints;
+	}
+
+	private void segment(int start, int end) {
+		int length = end - start;
+		if (length < 2 * MIN_SEGMENT_LENGTH)
+			return;
+
+		double bestStatistic = 0;
+		int best = -1;
+		for (int split = start + MIN_SEGMENT_LENGTH; split <= end - MIN_SEGMENT_LENGTH; split++) {
+			int before = split - start;
+			int after = end - split;
+			double shift = Math.abs(mean(split, end) - mean(start, split));
+			double statistic = Math.sqrt((double) before * after / length) * shift;
+			if (statistic > bestStatistic) {
+				bestStatistic = statistic;
+				best = split;
+			}
+		}
+		if (best < 0 || bestStatistic <= THRESHOLD * noise)
+			return;
+		double meanBefore = mean(start, best);
+		if (Math.abs(mean(best, end) - meanBefore) < MIN_RELATIVE_CHANGE * Math.abs(meanBefore))
+			return;
+
+		changePoints.add(best);
+		segment(start, best);
+		segment(best, end);
+	}
+
+	private double mean(int start, int end) {
+		return (prefixSums[end] - prefixSums[start]) / (end - start);
+	}
+
+	private static double estimateNoise(double[] values) {
+		double[] differences = new double[values.length - 1];
+		for (int i = 1; i < values.length; i++) {
+			differences[i - 1] = Math.abs(values[i] - values[i - 1]);
+		}
+		Arrays.sort(differences);
+		int middle = differences.length / 2;
+		double median = differences.length % 2 == 1 ? differences[middle] : (differences[middle - 1] + differences[middle]) / 2;
+		return median / MEDIAN_DIFFERENCE_TO_DEVIATION;
+	}
+}
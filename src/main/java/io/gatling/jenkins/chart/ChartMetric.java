@@ -0,0 +1,112 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.chart;
+
+import io.gatling.jenkins.trend.TrendMetric;
+import io.gatling.jenkins.trend.TrendRecord;
+
+/**
+ * The values that can be charted from the {@link TrendRecord}s, identified
+ * by the short ids used in the trend API.
+ */
+public enum ChartMetric {
+	MEAN("mean", TrendMetric.MEAN_RESPONSE_TIME),
+	MIN("min", TrendMetric.MIN_RESPONSE_TIME),
+	MAX("max", TrendMetric.MAX_RESPONSE_TIME),
+	STANDARD_DEVIATION("stddev", TrendMetric.STANDARD_DEVIATION),
+	PERCENTILE_1("p1", TrendMetric.PERCENTILE_1),
+	PERCENTILE_2("p2", TrendMetric.PERCENTILE_2),
+	// Gatling's default 3rd and 4th percentiles are the 95th and 99th
+	PERCENTILE_3("p3", TrendMetric.PERCENTILE_3, "p95"),
+	PERCENTILE_4("p4", TrendMetric.PERCENTILE_4, "p99"),
+	REQUESTS("requests", TrendMetric.REQUESTS),
+	REQUESTS_PER_SECOND("rps", TrendMetric.REQUESTS_PER_SECOND),
+	KO_PERCENTAGE("ko", null) {
+		@Override
+		public long getValue(TrendRecord record) {
+			return Math.round(record.get(TrendMetric.KO_REQUESTS) * 100.0 / record.get(TrendMetric.REQUESTS));
+		}
+	},
+	GROUP_1("group1", TrendMetric.GROUP_1),
+	GROUP_2("group2", TrendMetric.GROUP_2),
+	GROUP_3("group3", TrendMetric.GROUP_3),
+	GROUP_4("group4", TrendMetric.GROUP_4),
+	// the percentage of the requests in each response time group, stacked on the charts
+	GROUP_1_SHARE("share1", null) {
+		@Override
+		public long getValue(TrendRecord record) {
+			return share(record, TrendMetric.GROUP_1);
+		}
+	},
+	GROUP_2_SHARE("share2", null) {
+		@Override
+		public long getValue(TrendRecord record) {
+			return share(record, TrendMetric.GROUP_2);
+		}
+	},
+	GROUP_3_SHARE("share3", null) {
+		@Override
+		public long getValue(TrendRecord record) {
+			return share(record, TrendMetric.GROUP_3);
+		}
+	},
+	GROUP_4_SHARE("share4", null) {
+		@Override
+		public long getValue(TrendRecord record) {
+			return share(record, TrendMetric.GROUP_4);
+		}
+	};
+
+	static final ChartMetric[] GROUP_SHARES = {GROUP_1_SHARE, GROUP_2_SHARE, GROUP_3_SHARE, GROUP_4_SHARE};
+
+	private final String id;
+	private final TrendMetric metric;
+	private final String alias;
+
+	ChartMetric(String id, TrendMetric metric) {
+		this(id, metric, null);
+	}
+
+	ChartMetric(String id, TrendMetric metric, String alias) {
+		this.id = id;
+		this.metric = metric;
+		this.alias = alias;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public long getValue(TrendRecord record) {
+		return record.get(metric);
+	}
+
+	private static long share(TrendRecord record, TrendMetric group) {
+		long requests = record.get(TrendMetric.REQUESTS);
+		return requests == 0 ? 0 : Math.round(record.get(group) * 100.0 / requests);
+	}
+
+	/**
+	 * @return the metric with the given id or alias, or null if there is none
+	 */
+	public static ChartMetric fromId(String id) {
+		for (ChartMetric chartMetric : values()) {
+			if (chartMetric.id.equals(id) || (chartMetric.alias != null && chartMetric.alias.equals(id)))
+				return chartMetric;
+		}
+		return null;
+	}
+}
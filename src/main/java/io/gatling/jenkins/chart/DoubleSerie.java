@@ -16,38 +16,42 @@
 package io.gatling.jenkins.chart;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.databind.JsonSerializable;
-import com.fasterxml.jackson.databind.SerializerProvider;
-import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
 
-public class Point<X extends Number, Y extends Number> implements JsonSerializable {
-	private final X x;
-	private final Y y;
+/**
+ * A {@link Serie} of decimal values.
+ */
+public class DoubleSerie extends Serie {
+	private double[] y;
 
-	public Point(X x, Y y) {
-		this.x = x;
-		this.y = y;
+	public DoubleSerie() {
+		this(DEFAULT_CAPACITY);
 	}
 
-	public X getX() {
-		return x;
+	public DoubleSerie(int capacity) {
+		super(capacity);
+		y = new double[Math.max(capacity, 1)];
 	}
 
-	public Y getY() {
-		return y;
+	public void addPoint(int x, double y) {
+		int index = add(x);
+		this.y[index] = y;
 	}
 
-	public void serialize(JsonGenerator jgen, SerializerProvider provider) throws IOException {
-		jgen.writeStartArray();
-		jgen.writeObject(x);
-		jgen.writeObject(y);
-		jgen.writeEndArray();
+	public double getY(int index) {
+		checkIndex(index);
+		return y[index];
 	}
 
-	public void serializeWithType(JsonGenerator jgen, SerializerProvider provider, TypeSerializer typeSer) {
-		throw new UnsupportedOperationException();
+	@Override
+	void grow(int capacity) {
+		y = Arrays.copyOf(y, capacity);
 	}
 
+	@Override
+	void writeY(JsonGenerator jgen, int index) throws IOException {
+		jgen.writeNumber(y[index]);
+	}
 }
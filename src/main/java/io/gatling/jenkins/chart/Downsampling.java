@@ -0,0 +1,75 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.chart;
+
+/**
+ * Reduces a series to a given number of points with the Largest-Triangle-Three-Buckets
+ * algorithm, which keeps the visual shape of the series: the first and last points are
+ * kept, and each bucket in between is represented by the point forming the largest
+ * triangle with the point kept for the previous bucket and the average of the next bucket.
+ */
+public final class Downsampling {
+
+	private Downsampling() {}
+
+	/**
+	 * @return a series of at most maxPoints points, or the series itself if it is small enough
+	 */
+	public static LongSerie largestTriangleThreeBuckets(LongSerie serie, int maxPoints) {
+		int size = serie.size();
+		if (maxPoints < 3 || size <= maxPoints)
+			return serie;
+
+		LongSerie sampled = new LongSerie(maxPoints);
+		sampled.addPoint(serie.getX(0), serie.getY(0));
+
+		// the first and last points are buckets of their own
+		double bucketSize = (double) (size - 2) / (maxPoints - 2);
+		int selected = 0;
+		for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+			int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+			int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+			double averageX = 0;
+			double averageY = 0;
+			for (int i = nextStart; i < nextEnd; i++) {
+				averageX += serie.getX(i);
+				averageY += serie.getY(i);
+			}
+			averageX /= nextEnd - nextStart;
+			averageY /= nextEnd - nextStart;
+
+			int start = (int) (bucket * bucketSize) + 1;
+			int end = nextStart;
+			double selectedX = serie.getX(selected);
+			double selectedY = serie.getY(selected);
+			double maxArea = -1;
+			int next = start;
+			for (int i = start; i < end; i++) {
+				double area = Math.abs((selectedX - averageX) * (serie.getY(i) - selectedY)
+						- (selectedX - serie.getX(i)) * (averageY - selectedY));
+				if (area > maxArea) {
+					maxArea = area;
+					next = i;
+				}
+			}
+			sampled.addPoint(serie.getX(next), serie.getY(next));
+			selected = next;
+		}
+
+		sampled.addPoint(serie.getX(size - 1), serie.getY(size - 1));
+		return sampled;
+	}
+}
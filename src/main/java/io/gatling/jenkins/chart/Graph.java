@@ -16,64 +16,141 @@
 package io.gatling.jenkins.chart;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import hudson.model.Job;
-import hudson.model.Run;
-import io.gatling.jenkins.GatlingBuildAction;
-import io.gatling.jenkins.BuildSimulation;
-import io.gatling.jenkins.RequestReport;
+import io.gatling.jenkins.trend.TrendRecord;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-public abstract class Graph<Y extends Number> {
+/**
+ * A trend chart, as a view over a {@link TrendDataset}. The series and their
+ * JSON are computed on first use only.
+ */
+public abstract class Graph {
 	private static final Logger LOGGER = Logger.getLogger(Graph.class.getName());
 
-	private final SortedMap<SerieName, Serie<Integer, Y>> series = new TreeMap<SerieName, Serie<Integer, Y>>();
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final TrendDataset dataset;
+
+	private final int maxPoints;
 
-	private final ObjectMapper mapper = new ObjectMapper();
+	private SortedMap<SerieName, LongSerie> series;
+
+	private String seriesNamesJSON;
+
+	private String seriesJSON;
 
 	public Graph(Job<?, ?> job, int maxBuildsToDisplay) {
-		int numberOfBuild = 0;
-		for (Run<?, ?> run : job.getBuilds()) {
-			GatlingBuildAction action = run.getAction(GatlingBuildAction.class);
-			if (action != null) {
-				numberOfBuild++;
-				for (BuildSimulation sim : action.getSimulations()) {
-					SerieName name = new SerieName(sim.getSimulationName());
-					if (!series.containsKey(name))
-						 series.put(name, new Serie<Integer, Y>());
-					series.get(name).addPoint(run.getNumber(), getValue(sim.getRequestReport()));
+		this(TrendDataset.forJob(job, maxBuildsToDisplay));
+	}
+
+	public Graph(TrendDataset dataset) {
+		this(dataset, 0);
+	}
+
+	/**
+	 * @param maxPoints the number of points each series is downsampled to, or 0 to keep all the points
+	 */
+	public Graph(TrendDataset dataset, int maxPoints) {
+		this.dataset = dataset;
+		this.maxPoints = maxPoints;
+	}
+
+	public static Graph forMetric(TrendDataset dataset, ChartMetric metric) {
+		return forMetric(dataset, metric, 0);
+	}
+
+	public static Graph forMetric(TrendDataset dataset, final ChartMetric metric, int maxPoints) {
+		return new Graph(dataset, maxPoints) {
+			@Override
+			protected long getValue(TrendRecord record) {
+				return metric.getValue(record);
+			}
+		};
+	}
+
+	private synchronized SortedMap<SerieName, LongSerie> getSeries() {
+		if (series == null) {
+			series = new TreeMap<SerieName, LongSerie>();
+			for (Map.Entry<String, List<TrendRecord>> entry : dataset.getRecordsBySimulation().entrySet()) {
+				List<TrendRecord> records = entry.getValue();
+				LongSerie serie = new LongSerie(records.size());
+				for (TrendRecord record : records) {
+					serie.addPoint(record.getBuildNumber(), getValue(record));
 				}
+				series.put(new SerieName(entry.getKey()), Downsampling.largestTriangleThreeBuckets(serie, maxPoints));
 			}
-			if (numberOfBuild >= maxBuildsToDisplay)
-				break;
 		}
+		return series;
 	}
 
-	public String getSeriesNamesJSON() {
-		String json = null;
+	public synchronized String getSeriesNamesJSON() {
+		if (seriesNamesJSON == null) {
+			seriesNamesJSON = toSeriesNamesJSON(getSeries().keySet());
+		}
+		return seriesNamesJSON;
+	}
+
+	public synchronized String getSeriesJSON() {
+		if (seriesJSON == null) {
+			seriesJSON = toSeriesJSON(getSeries().values());
+		}
+		return seriesJSON;
+	}
 
+	static String toSeriesNamesJSON(Collection<SerieName> names) {
 		try {
-			json = mapper.writeValueAsString(series.keySet());
+			return MAPPER.writeValueAsString(names);
 		} catch (IOException e) {
 			LOGGER.log(Level.INFO, e.getMessage(), e);
+			return null;
 		}
-		return json;
 	}
 
-	public String getSeriesJSON() {
-		String json = null;
-
+	static String toSeriesJSON(Collection<? extends Serie> series) {
 		try {
-			json = mapper.writeValueAsString(series.values());
+			StringWriter writer = new StringWriter();
+			JsonGenerator jgen = MAPPER.getFactory().createGenerator(writer);
+			jgen.writeStartArray();
+			for (Serie serie : series) {
+				serie.writeTo(jgen);
+			}
+			jgen.writeEndArray();
+			jgen.close();
+			return writer.toString();
 		} catch (IOException e) {
 			LOGGER.log(Level.INFO, e.getMessage(), e);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the series as an array of {"name": simulation, "data": [[x, y], ...]} objects.
+	 *
+	 * @param simulationName the simulation to write the series of, or null for all of them
+	 */
+	public void writeSeries(JsonGenerator jgen, String simulationName) throws IOException {
+		jgen.writeStartArray();
+		for (Map.Entry<SerieName, LongSerie> entry : getSeries().entrySet()) {
+			if (simulationName == null || simulationName.equals(entry.getKey().name)) {
+				jgen.writeStartObject();
+				jgen.writeStringField("name", entry.getKey().name);
+				jgen.writeFieldName("data");
+				entry.getValue().writeTo(jgen);
+				jgen.writeEndObject();
+			}
 		}
-		return json;
+		jgen.writeEndArray();
 	}
 
-	protected abstract Y getValue(RequestReport requestReport);
+	protected abstract long getValue(TrendRecord record);
 }
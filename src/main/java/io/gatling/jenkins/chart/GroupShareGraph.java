@@ -0,0 +1,102 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.chart;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.gatling.jenkins.trend.TrendRecord;
+
+/**
+ * The share of the requests of a simulation in each response time group,
+ * as one series per group to be stacked on a chart, so that the series add
+ * up to 100% for each build.
+ *
+ * Like the other graphs, it's a view over a {@link TrendDataset}. The series
+ * are downsampled by keeping the same builds for all the groups, so that the
+ * stacked points stay aligned.
+ */
+public final class GroupShareGraph {
+
+	private final String simulationName;
+
+	private final List<SerieName> seriesNames;
+
+	private final List<TrendRecord> records;
+
+	private final int maxPoints;
+
+	private String seriesNamesJSON;
+
+	private String seriesJSON;
+
+	/**
+	 * @param groupNames the names of the 4 response time groups
+	 * @param maxPoints the number of points the series are downsampled to, or 0 to keep all the points
+	 */
+	public GroupShareGraph(TrendDataset dataset, String simulationName, String[] groupNames, int maxPoints) {
+		this.simulationName = simulationName;
+		this.seriesNames = new ArrayList<SerieName>(groupNames.length);
+		for (String groupName : groupNames) {
+			seriesNames.add(new SerieName(groupName));
+		}
+		List<TrendRecord> simulationRecords = dataset.getRecordsBySimulation().get(simulationName);
+		this.records = simulationRecords != null ? simulationRecords : new ArrayList<TrendRecord>();
+		this.maxPoints = maxPoints;
+	}
+
+	/**
+	 * @return one graph for each simulation of the dataset, sorted by simulation name
+	 */
+	public static List<GroupShareGraph> forSimulations(TrendDataset dataset, String[] groupNames, int maxPoints) {
+		List<GroupShareGraph> graphs = new ArrayList<GroupShareGraph>();
+		for (String simulationName : dataset.getRecordsBySimulation().keySet()) {
+			graphs.add(new GroupShareGraph(dataset, simulationName, groupNames, maxPoints));
+		}
+		return graphs;
+	}
+
+	public String getSimulationName() {
+		return simulationName;
+	}
+
+	public synchronized String getSeriesNamesJSON() {
+		if (seriesNamesJSON == null) {
+			seriesNamesJSON = Graph.toSeriesNamesJSON(seriesNames);
+		}
+		return seriesNamesJSON;
+	}
+
+	public synchronized String getSeriesJSON() {
+		if (seriesJSON == null) {
+			int size = records.size();
+			// keep the last build and every step-th build before it
+			int step = maxPoints > 0 && size > maxPoints ? (size + maxPoints - 1) / maxPoints : 1;
+			List<LongSerie> series = new ArrayList<LongSerie>(ChartMetric.GROUP_SHARES.length);
+			for (ChartMetric share : ChartMetric.GROUP_SHARES) {
+				LongSerie serie = new LongSerie(size / step + 1);
+				// the records are newest first
+				for (int i = 0; i < size; i += step) {
+					TrendRecord record = records.get(i);
+					serie.addPoint(record.getBuildNumber(), share.getValue(record));
+				}
+				series.add(serie);
+			}
+			seriesJSON = Graph.toSeriesJSON(series);
+		}
+		return seriesJSON;
+	}
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.chart;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * A {@link Serie} of integral values.
+ */
+public class LongSerie extends Serie {
+	private long[] y;
+
+	public LongSerie() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public LongSerie(int capacity) {
+		super(capacity);
+		y = new long[Math.max(capacity, 1)];
+	}
+
+	public void addPoint(int x, long y) {
+		int index = add(x);
+		this.y[index] = y;
+	}
+
+	public long getY(int index) {
+		checkIndex(index);
+		return y[index];
+	}
+
+	@Override
+	void grow(int capacity) {
+		y = Arrays.copyOf(y, capacity);
+	}
+
+	@Override
+	void writeY(JsonGenerator jgen, int index) throws IOException {
+		jgen.writeNumber(y[index]);
+	}
+}
@@ -16,23 +16,76 @@
 package io.gatling.jenkins.chart;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializable;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
 
-public class Serie<X extends Number, Y extends Number> implements JsonSerializable {
-	private final List<Point<X, Y>> points = new ArrayList<Point<X, Y>>();
+/**
+ * A chart series, stored as parallel primitive arrays that grow by doubling.
+ * It is written as an array of [x, y] pairs.
+ */
+public abstract class Serie implements JsonSerializable {
+	static final int DEFAULT_CAPACITY = 16;
+
+	private int[] x;
+	private int size;
+
+	Serie(int capacity) {
+		x = new int[Math.max(capacity, 1)];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getX(int index) {
+		checkIndex(index);
+		return x[index];
+	}
+
+	/**
+	 * Reserves the slot of a new point.
+	 *
+	 * @return the index of the new point
+	 */
+	int add(int x) {
+		if (size == this.x.length) {
+			int capacity = size * 2;
+			this.x = Arrays.copyOf(this.x, capacity);
+			grow(capacity);
+		}
+		this.x[size] = x;
+		return size++;
+	}
+
+	void checkIndex(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+
+	abstract void grow(int capacity);
+
+	abstract void writeY(JsonGenerator jgen, int index) throws IOException;
 
-	public void addPoint(X x, Y y) {
-		points.add(new Point<X, Y>(x, y));
+	/**
+	 * Writes the points without going through the serializers of the generator's codec.
+	 */
+	public void writeTo(JsonGenerator jgen) throws IOException {
+		jgen.writeStartArray();
+		for (int i = 0; i < size; i++) {
+			jgen.writeStartArray();
+			jgen.writeNumber(x[i]);
+			writeY(jgen, i);
+			jgen.writeEndArray();
+		}
+		jgen.writeEndArray();
 	}
 
 	public void serialize(JsonGenerator jgen, SerializerProvider provider) throws IOException {
-		jgen.writeObject(points);
+		writeTo(jgen);
 	}
 
 	public void serializeWithType(JsonGenerator jgen, SerializerProvider provider, TypeSerializer typeSer) {
@@ -0,0 +1,160 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.chart;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+import hudson.model.Job;
+import io.gatling.jenkins.trend.TrendIndex;
+import io.gatling.jenkins.trend.TrendMetric;
+import io.gatling.jenkins.trend.TrendRecord;
+
+/**
+ * The 95th percentile and KO percentage of the last builds of a job, drawn as
+ * tiny inline SVG lines for the list views. When a build ran several
+ * simulations, the worst percentile and the overall KO percentage are kept.
+ *
+ * The lines are drawn from the cached {@link TrendDataset} of the job, and
+ * cached until the dataset changes.
+ */
+public final class Sparkline {
+	static final int WIDTH = 100;
+	static final int HEIGHT = 20;
+
+	private static final String PERCENTILE_COLOR = "#4572a7";
+	private static final String KO_PERCENTAGE_COLOR = "#aa4643";
+
+	private static final Map<Job<?, ?>, Sparkline> CACHE = new WeakHashMap<Job<?, ?>, Sparkline>();
+
+	private final TrendDataset dataset;
+
+	private final long[] percentiles;
+
+	private final long[] koPercentages;
+
+	private final String percentileSvg;
+
+	private final String koPercentageSvg;
+
+	/**
+	 * @return the sparklines of the last builds of the job, or null if the job has no Gatling reports
+	 */
+	public static Sparkline forJob(Job<?, ?> job, int builds) {
+		// don't build a trend index for the jobs that aren't Gatling jobs
+		if (!TrendIndex.exists(job))
+			return null;
+		TrendDataset dataset = TrendDataset.forJob(job, builds);
+		synchronized (CACHE) {
+			Sparkline sparkline = CACHE.get(job);
+			if (sparkline == null || sparkline.dataset != dataset) {
+				sparkline = new Sparkline(dataset);
+				CACHE.put(job, sparkline);
+			}
+			return sparkline;
+		}
+	}
+
+	Sparkline(TrendDataset dataset) {
+		this.dataset = dataset;
+		// the worst percentile, the KO requests and the requests of each build
+		SortedMap<Integer, long[]> builds = new TreeMap<Integer, long[]>();
+		for (List<TrendRecord> records : dataset.getRecordsBySimulation().values()) {
+			for (TrendRecord record : records) {
+				long[] build = builds.get(record.getBuildNumber());
+				if (build == null) {
+					build = new long[3];
+					builds.put(record.getBuildNumber(), build);
+				}
+				build[0] = Math.max(build[0], record.get(TrendMetric.PERCENTILE_3));
+				build[1] += record.get(TrendMetric.KO_REQUESTS);
+				build[2] += record.get(TrendMetric.REQUESTS);
+			}
+		}
+		percentiles = new long[builds.size()];
+		koPercentages = new long[builds.size()];
+		int i = 0;
+		for (long[] build : builds.values()) {
+			percentiles[i] = build[0];
+			koPercentages[i] = build[2] == 0 ? 0 : Math.round(build[1] * 100.0 / build[2]);
+			i++;
+		}
+		percentileSvg = toSvg(percentiles, PERCENTILE_COLOR);
+		koPercentageSvg = toSvg(koPercentages, KO_PERCENTAGE_COLOR);
+	}
+
+	/**
+	 * @return the SVG of the 95th percentiles, or null if there are no builds
+	 */
+	public String getPercentileSvg() {
+		return percentileSvg;
+	}
+
+	/**
+	 * @return the SVG of the KO percentages, or null if there are no builds
+	 */
+	public String getKOPercentageSvg() {
+		return koPercentageSvg;
+	}
+
+	public long getLastPercentile() {
+		return percentiles.length > 0 ? percentiles[percentiles.length - 1] : 0;
+	}
+
+	public long getLastKOPercentage() {
+		return koPercentages.length > 0 ? koPercentages[koPercentages.length - 1] : 0;
+	}
+
+	/**
+	 * @return a line of the values, oldest first, scaled from 0 to the highest value
+	 */
+	static String toSvg(long[] values, String color) {
+		if (values.length == 0)
+			return null;
+		long max = 1;
+		for (long value : values) {
+			max = Math.max(max, value);
+		}
+		StringBuilder svg = new StringBuilder(64 + values.length * 12);
+		svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(WIDTH)
+				.append("\" height=\"").append(HEIGHT)
+				.append("\" viewBox=\"0 0 ").append(WIDTH).append(' ').append(HEIGHT).append("\">");
+		svg.append("<polyline fill=\"none\" stroke=\"").append(color).append("\" stroke-width=\"1.5\" points=\"");
+		// a single build is drawn as a flat line
+		int points = Math.max(values.length, 2);
+		for (int i = 0; i < points; i++) {
+			long value = values[Math.min(i, values.length - 1)];
+			if (i > 0)
+				svg.append(' ');
+			appendCoordinate(svg, 1 + (double) i * (WIDTH - 2) / (points - 1));
+			svg.append(',');
+			appendCoordinate(svg, HEIGHT - 1 - (double) value * (HEIGHT - 2) / max);
+		}
+		svg.append("\"/></svg>");
+		return svg.toString();
+	}
+
+	/**
+	 * Appends a coordinate with one decimal, whatever the default locale.
+	 */
+	private static void appendCoordinate(StringBuilder svg, double coordinate) {
+		long tenths = Math.round(coordinate * 10);
+		svg.append(tenths / 10).append('.').append(tenths % 10);
+	}
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.chart;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import hudson.model.Job;
+import io.gatling.jenkins.trend.RequestStatsFile;
+import io.gatling.jenkins.trend.TrendIndex;
+import io.gatling.jenkins.trend.TrendRecord;
+
+/**
+ * The records of the last builds of a job, grouped by simulation, from which
+ * all the trend charts of the job are drawn.
+ *
+ * The records are selected in a single pass over the {@link TrendIndex}, and
+ * the dataset is cached until the index changes, so the charts of a page are
+ * only views over the same dataset.
+ */
+public final class TrendDataset {
+	private static final Logger LOGGER = Logger.getLogger(TrendDataset.class.getName());
+
+	// the number of builds comes from the URL of the trend API, the datasets of the last ones asked for are kept
+	private static final int MAX_CACHED_DATASETS = 8;
+
+	private static final Map<Job<?, ?>, Map<Integer, TrendDataset>> CACHE = new WeakHashMap<Job<?, ?>, Map<Integer, TrendDataset>>();
+
+	private static final int MAX_CACHED_REQUEST_DATASETS = 16;
+
+	private static final Map<Job<?, ?>, Map<String, TrendDataset>> REQUEST_CACHE = new WeakHashMap<Job<?, ?>, Map<String, TrendDataset>>();
+
+	private static final TrendDataset EMPTY = new TrendDataset(null, Collections.<TrendRecord>emptyList(), 0);
+
+	private final String revision;
+	private final SortedMap<String, List<TrendRecord>> recordsBySimulation = new TreeMap<String, List<TrendRecord>>();
+
+	/**
+	 * @param maxBuildsToDisplay the number of builds to keep, or 0 for all of them
+	 * @return the dataset of the last builds of the job, or an empty dataset if the trend index can't be read
+	 */
+	public static TrendDataset forJob(Job<?, ?> job, int maxBuildsToDisplay) {
+		String revision;
+		List<TrendRecord> records;
+		TrendIndex index = TrendIndex.forJob(job);
+		try {
+			synchronized (index) {
+				records = index.getRecords();
+				revision = index.getRevision();
+			}
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Failed to read the Gatling trend index of " + job.getFullName(), e);
+			return EMPTY;
+		}
+
+		synchronized (CACHE) {
+			Map<Integer, TrendDataset> datasets = CACHE.get(job);
+			if (datasets == null) {
+				datasets = new LinkedHashMap<Integer, TrendDataset>(MAX_CACHED_DATASETS, 0.75f, true) {
+					@Override
+					protected boolean removeEldestEntry(Map.Entry<Integer, TrendDataset> eldest) {
+						return size() > MAX_CACHED_DATASETS;
+					}
+				};
+				CACHE.put(job, datasets);
+			}
+			TrendDataset dataset = datasets.get(maxBuildsToDisplay);
+			if (dataset == null || !revision.equals(dataset.revision)) {
+				dataset = new TrendDataset(revision, records, maxBuildsToDisplay);
+				datasets.put(maxBuildsToDisplay, dataset);
+			}
+			return dataset;
+		}
+	}
+
+	/**
+	 * The records of a request are read from the {@link RequestStatsFile} of
+	 * each build of the simulation, only when the request is looked at, and
+	 * the datasets of the last requests looked at are cached until the index
+	 * changes.
+	 *
+	 * @param maxBuildsToDisplay the number of builds to keep, or 0 for all of them
+	 * @return the dataset of the request in the last builds of the simulation,
+	 * with one record per build named after the request, or an empty dataset
+	 * if the trend index can't be read
+	 */
+	public static TrendDataset forRequest(Job<?, ?> job, String simulationName, String requestName, int maxBuildsToDisplay) {
+		String revision;
+		List<TrendRecord> records;
+		TrendIndex index = TrendIndex.forJob(job);
+		try {
+			synchronized (index) {
+				records = index.getRecords();
+				revision = index.getRevision();
+			}
+		} catch (IOException e) {
+			LOGGER.log(Level.WARNING, "Failed to read the Gatling trend index of " + job.getFullName(), e);
+			return EMPTY;
+		}
+
+		String key = maxBuildsToDisplay + "/" + simulationName + "/" + requestName;
+		Map<String, TrendDataset> datasets;
+		synchronized (REQUEST_CACHE) {
+			datasets = REQUEST_CACHE.get(job);
+			if (datasets == null) {
+				datasets = new LinkedHashMap<String, TrendDataset>(MAX_CACHED_REQUEST_DATASETS, 0.75f, true) {
+					@Override
+					protected boolean removeEldestEntry(Map.Entry<String, TrendDataset> eldest) {
+						return size() > MAX_CACHED_REQUEST_DATASETS;
+					}
+				};
+				REQUEST_CACHE.put(job, datasets);
+			}
+			TrendDataset dataset = datasets.get(key);
+			if (dataset != null && revision.equals(dataset.revision)) {
+				return dataset;
+			}
+		}
+
+		if (maxBuildsToDisplay <= 0)
+			maxBuildsToDisplay = Integer.MAX_VALUE;
+		List<TrendRecord> requestRecords = new ArrayList<TrendRecord>();
+		int numberOfBuild = 0;
+		int lastBuildNumber = -1;
+		for (int i = records.size() - 1; i >= 0 && numberOfBuild < maxBuildsToDisplay; i--) {
+			TrendRecord record = records.get(i);
+			if (record.getBuildNumber() == lastBuildNumber || !record.getSimulationName().equals(simulationName))
+				continue;
+			numberOfBuild++;
+			lastBuildNumber = record.getBuildNumber();
+			try {
+				TrendRecord requestRecord = RequestStatsFile.read(RequestStatsFile.getFile(job, lastBuildNumber), simulationName, requestName);
+				if (requestRecord != null)
+					requestRecords.add(requestRecord);
+			} catch (IOException e) {
+				LOGGER.log(Level.WARNING, "Failed to read the Gatling request statistics of " + job.getFullName() + " #" + lastBuildNumber, e);
+			}
+		}
+		Collections.reverse(requestRecords);
+
+		TrendDataset dataset = new TrendDataset(revision, requestRecords, 0);
+		synchronized (REQUEST_CACHE) {
+			datasets.put(key, dataset);
+		}
+		return dataset;
+	}
+
+	/**
+	 * @param maxBuildsToDisplay the number of builds to keep, or 0 for all of them
+	 */
+	TrendDataset(String revision, List<TrendRecord> records, int maxBuildsToDisplay) {
+		this.revision = revision;
+		if (maxBuildsToDisplay <= 0)
+			maxBuildsToDisplay = Integer.MAX_VALUE;
+		int numberOfBuild = 0;
+		int lastBuildNumber = -1;
+		// newest builds first, like the build history
+		for (int i = records.size() - 1; i >= 0; i--) {
+			TrendRecord record = records.get(i);
+			if (record.getBuildNumber() != lastBuildNumber) {
+				if (numberOfBuild >= maxBuildsToDisplay)
+					break;
+				numberOfBuild++;
+				lastBuildNumber = record.getBuildNumber();
+			}
+			List<TrendRecord> simulationRecords = recordsBySimulation.get(record.getSimulationName());
+			if (simulationRecords == null) {
+				simulationRecords = new ArrayList<TrendRecord>();
+				recordsBySimulation.put(record.getSimulationName(), simulationRecords);
+			}
+			simulationRecords.add(record);
+		}
+	}
+
+	/**
+	 * @return the revision of the trend index the dataset was read from, or null for an empty dataset
+	 */
+	String getRevision() {
+		return revision;
+	}
+
+	/**
+	 * @return the records of each simulation, newest first, sorted by simulation name
+	 */
+	public SortedMap<String, List<TrendRecord>> getRecordsBySimulation() {
+		return Collections.unmodifiableSortedMap(recordsBySimulation);
+	}
+}
@@ -19,6 +19,7 @@ import hudson.Extension;
 import org.jenkinsci.plugins.workflow.steps.AbstractStepDescriptorImpl;
 import org.jenkinsci.plugins.workflow.steps.AbstractStepImpl;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
 import javax.annotation.Nonnull;
 
@@ -26,9 +27,101 @@ import javax.annotation.Nonnull;
  * Archiving for gatling reports.
  */
 public class GatlingArchiverStep extends AbstractStepImpl {
+    private int archiveThreads;
+    private boolean deduplicateReports;
+    private boolean compressSimulationLog;
+    private boolean compressTextAssets;
+    private boolean detectRegressions;
+    private boolean markUnstableOnRegression;
+    private double regressionThreshold;
+
     @DataBoundConstructor
     public GatlingArchiverStep() {}
 
+    public int getArchiveThreads() {
+        return archiveThreads;
+    }
+
+    /**
+     * @see io.gatling.jenkins.GatlingPublisher#setArchiveThreads(int)
+     */
+    @DataBoundSetter
+    public void setArchiveThreads(int archiveThreads) {
+        this.archiveThreads = archiveThreads;
+    }
+
+    public boolean isDeduplicateReports() {
+        return deduplicateReports;
+    }
+
+    /**
+     * @see io.gatling.jenkins.GatlingPublisher#setDeduplicateReports(boolean)
+     */
+    @DataBoundSetter
+    public void setDeduplicateReports(boolean deduplicateReports) {
+        this.deduplicateReports = deduplicateReports;
+    }
+
+    public boolean isCompressSimulationLog() {
+        return compressSimulationLog;
+    }
+
+    /**
+     * @see io.gatling.jenkins.GatlingPublisher#setCompressSimulationLog(boolean)
+     */
+    @DataBoundSetter
+    public void setCompressSimulationLog(boolean compressSimulationLog) {
+        this.compressSimulationLog = compressSimulationLog;
+    }
+
+    public boolean isCompressTextAssets() {
+        return compressTextAssets;
+    }
+
+    /**
+     * @see io.gatling.jenkins.GatlingPublisher#setCompressTextAssets(boolean)
+     */
+    @DataBoundSetter
+    public void setCompressTextAssets(boolean compressTextAssets) {
+        this.compressTextAssets = compressTextAssets;
+    }
+
+    public boolean isDetectRegressions() {
+        return detectRegressions;
+    }
+
+    /**
+     * @see io.gatling.jenkins.GatlingPublisher#setDetectRegressions(boolean)
+     */
+    @DataBoundSetter
+    public void setDetectRegressions(boolean detectRegressions) {
+        this.detectRegressions = detectRegressions;
+    }
+
+    public boolean isMarkUnstableOnRegression() {
+        return markUnstableOnRegression;
+    }
+
+    /**
+     * @see io.gatling.jenkins.GatlingPublisher#setMarkUnstableOnRegression(boolean)
+     */
+    @DataBoundSetter
+    public void setMarkUnstableOnRegression(boolean markUnstableOnRegression) {
+        this.markUnstableOnRegression = markUnstableOnRegression;
+    }
+
+    public double getRegressionThreshold() {
+        return regressionThreshold;
+    }
+
+    /**
+     * @see io.gatling.jenkins.GatlingPublisher#setRegressionThreshold(double)
+     */
+    @DataBoundSetter
+    public void setRegressionThreshold(double regressionThreshold) {
+        this.regressionThreshold = regressionThreshold;
+    }
+
     @Extension
     public static class DescriptorImpl extends AbstractStepDescriptorImpl {
         public DescriptorImpl() { super(GatlingArchiverStepExecution.class); }
@@ -25,9 +25,14 @@ import io.gatling.jenkins.GatlingPublisher;
 import org.jenkinsci.plugins.workflow.steps.AbstractSynchronousNonBlockingStepExecution;
 import org.jenkinsci.plugins.workflow.steps.StepContextParameter;
 
+import javax.inject.Inject;
+
 public class GatlingArchiverStepExecution extends AbstractSynchronousNonBlockingStepExecution<Void> {
     private static final long serialVersionUID = 1L;
 
+    @Inject
+    private transient GatlingArchiverStep step;
+
     @StepContextParameter
     private transient TaskListener listener;
 
@@ -45,6 +50,13 @@ public class GatlingArchiverStepExecution extends AbstractSynchronousNonBlocking
         listener.getLogger().println("Running Gatling archiver step.");
 
         GatlingPublisher publisher = new GatlingPublisher(true);
+        publisher.setArchiveThreads(step.getArchiveThreads());
+        publisher.setDeduplicateReports(step.isDeduplicateReports());
+        publisher.setCompressSimulationLog(step.isCompressSimulationLog());
+        publisher.setCompressTextAssets(step.isCompressTextAssets());
+        publisher.setDetectRegressions(step.isDetectRegressions());
+        publisher.setMarkUnstableOnRegression(step.isMarkUnstableOnRegression());
+        publisher.setRegressionThreshold(step.getRegressionThreshold());
         publisher.perform(build, ws, launcher, listener);
 
         return null;
@@ -0,0 +1,169 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.trend;
+
+import hudson.model.Job;
+import hudson.model.Run;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records the number of the last build of a job that archived Gatling
+ * reports, so that finding it doesn't require going through the builds.
+ *
+ * The number is kept in a small file of the job directory, and in memory.
+ * It is updated when a build archives reports and dropped when that build is
+ * deleted, to be found again from the {@link TrendIndex} on next use.
+ *
+ * Finding it again may rebuild the trend index from the whole history of the
+ * job, so it is done holding the lock of the trend index of the job only,
+ * which the other jobs don't wait for.
+ */
+public final class LastBuildMarker {
+
+    public static final String FILE_NAME = "gatling-last-build";
+
+    private static final Logger logger = Logger.getLogger(LastBuildMarker.class.getName());
+
+    private static final Map<Job<?, ?>, Integer> NUMBERS = new WeakHashMap<Job<?, ?>, Integer>();
+
+    private LastBuildMarker() {}
+
+    /**
+     * @return the number of the last build with Gatling reports, or 0 if there is none
+     */
+    public static int get(Job<?, ?> job) {
+        Integer number = getCached(job);
+        if (number != null) {
+            return number;
+        }
+        synchronized (TrendIndex.forJob(job)) {
+            number = getCached(job);
+            if (number == null) {
+                number = load(job);
+                synchronized (NUMBERS) {
+                    NUMBERS.put(job, number);
+                }
+            }
+            return number;
+        }
+    }
+
+    /**
+     * Unlike {@link #get(Job)}, doesn't look for the last build in the trend
+     * index when the job has no marker, which would create an index for any job.
+     *
+     * @return whether a build of the job is known to have archived Gatling reports
+     */
+    public static boolean isPresent(Job<?, ?> job) {
+        Integer number = getCached(job);
+        return number != null ? number > 0 : getFile(job).isFile() && get(job) > 0;
+    }
+
+    /**
+     * @return the last build with Gatling reports, or null if there is none
+     */
+    public static Run<?, ?> getLastBuild(Job<?, ?> job) {
+        int number = get(job);
+        return number > 0 ? job.getBuildByNumber(number) : null;
+    }
+
+    /**
+     * Records that a build archived Gatling reports.
+     */
+    public static void update(Run<?, ?> run) {
+        Job<?, ?> job = run.getParent();
+        synchronized (TrendIndex.forJob(job)) {
+            if (run.getNumber() > get(job)) {
+                synchronized (NUMBERS) {
+                    NUMBERS.put(job, run.getNumber());
+                }
+                write(job, run.getNumber());
+            }
+        }
+    }
+
+    /**
+     * Forgets the last build if it is the deleted one.
+     */
+    public static void invalidate(Run<?, ?> run) {
+        Job<?, ?> job = run.getParent();
+        synchronized (TrendIndex.forJob(job)) {
+            if (run.getNumber() == get(job)) {
+                synchronized (NUMBERS) {
+                    NUMBERS.remove(job);
+                }
+                File file = getFile(job);
+                if (file.exists() && !file.delete()) {
+                    logger.log(Level.WARNING, "Failed to delete " + file);
+                }
+            }
+        }
+    }
+
+    private static Integer getCached(Job<?, ?> job) {
+        synchronized (NUMBERS) {
+            return NUMBERS.get(job);
+        }
+    }
+
+    private static int load(Job<?, ?> job) {
+        File file = getFile(job);
+        if (file.isFile()) {
+            try {
+                return Integer.parseInt(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim());
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Failed to read " + file, e);
+            } catch (NumberFormatException e) {
+                logger.log(Level.WARNING, "Ignoring the invalid content of " + file, e);
+            }
+        }
+        List<TrendRecord> records;
+        try {
+            records = TrendIndex.forJob(job).getRecords();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to read the Gatling trend index of " + job.getFullName(), e);
+            return 0;
+        }
+        int number = records.isEmpty() ? 0 : records.get(records.size() - 1).getBuildNumber();
+        write(job, number);
+        return number;
+    }
+
+    private static void write(Job<?, ?> job, int number) {
+        File file = getFile(job);
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            Files.write(tmp.toPath(), Integer.toString(number).getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to write " + file, e);
+        }
+    }
+
+    private static File getFile(Job<?, ?> job) {
+        return new File(job.getRootDir(), FILE_NAME);
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.trend;
+
+/**
+ * A value of a simulation found to be significantly worse than its {@link RegressionBaseline}.
+ */
+public final class Regression {
+
+    private final String simulationName;
+    private final TrendMetric metric;
+    private final long value;
+    private final double baseline;
+    private final double deviation;
+
+    Regression(String simulationName, TrendMetric metric, long value, double baseline, double deviation) {
+        this.simulationName = simulationName;
+        this.metric = metric;
+        this.value = value;
+        this.baseline = baseline;
+        this.deviation = deviation;
+    }
+
+    public String getSimulationName() {
+        return simulationName;
+    }
+
+    public TrendMetric getMetric() {
+        return metric;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    public double getBaseline() {
+        return baseline;
+    }
+
+    public double getDeviation() {
+        return deviation;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s is %d, baseline is %.1f +/- %.1f",
+                simulationName, metric, value, baseline, deviation);
+    }
+}
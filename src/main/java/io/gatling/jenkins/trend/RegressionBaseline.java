@@ -0,0 +1,295 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.trend;
+
+import hudson.model.Job;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The baseline of the global statistics of each simulation of a job, against
+ * which the statistics of a new build are checked for regressions.
+ *
+ * For each simulation and {@link TrendMetric}, the baseline is an
+ * exponentially weighted moving average and variance of the values of the
+ * previous builds, so checking a build and updating the baseline take a
+ * constant time whatever the length of the history. Only the builds without
+ * regressions update the baseline, so that a regression doesn't become the
+ * new normal, unless it lasts: the flagged builds make up a candidate
+ * baseline, which replaces the baseline after {@link #ACCEPTED_REGRESSIONS}
+ * consecutive flagged builds, so that a deliberate step change doesn't flag
+ * all the following builds. Failed and aborted builds leave both untouched.
+ *
+ * The baselines are kept in a file of the job directory, and in memory.
+ */
+public final class RegressionBaseline {
+
+    public static final String FILE_NAME = "gatling-baseline.bin";
+
+    /**
+     * The default number of standard deviations from the baseline beyond which a value is a regression.
+     */
+    public static final double DEFAULT_THRESHOLD = 3;
+
+    /**
+     * The weight of the last build in the moving averages.
+     */
+    static final double SMOOTHING = 0.2;
+
+    /**
+     * The number of builds the baseline is made of before builds are checked against it.
+     */
+    static final int MIN_BUILDS = 5;
+
+    /**
+     * The minimal relative change from the baseline for a value to be a
+     * regression, so that a very stable history doesn't flag noise.
+     */
+    static final double MIN_RELATIVE_CHANGE = 0.1;
+
+    /**
+     * The number of consecutive flagged builds after which their values become
+     * the new baseline, as many as a baseline needs to be checked against.
+     */
+    static final int ACCEPTED_REGRESSIONS = MIN_BUILDS;
+
+    private static final TrendMetric[] LATENCY_METRICS = {
+            TrendMetric.MEAN_RESPONSE_TIME, TrendMetric.PERCENTILE_3, TrendMetric.PERCENTILE_4};
+
+    private static final TrendMetric[] THROUGHPUT_METRICS = {TrendMetric.REQUESTS_PER_SECOND};
+
+    private static final int MAGIC = 0x47544241;
+    private static final int VERSION = 2;
+
+    private static final Map<Job<?, ?>, RegressionBaseline> BASELINES = new WeakHashMap<Job<?, ?>, RegressionBaseline>();
+
+    private final File file;
+
+    private Map<String, Estimate[]> estimates;
+    // the estimates of the consecutive flagged builds of each simulation
+    private Map<String, Estimate[]> candidates;
+
+    public static RegressionBaseline forJob(Job<?, ?> job) {
+        File file = new File(job.getRootDir(), FILE_NAME);
+        synchronized (BASELINES) {
+            RegressionBaseline baseline = BASELINES.get(job);
+            // a renamed job has a new directory
+            if (baseline == null || !baseline.file.equals(file)) {
+                baseline = new RegressionBaseline(file);
+                BASELINES.put(job, baseline);
+            }
+            return baseline;
+        }
+    }
+
+    RegressionBaseline(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Checks the global statistics of a simulation against its baseline, and
+     * adds them to the baseline if they aren't a regression.
+     *
+     * @param values the values of the {@link TrendMetric}s
+     * @param threshold the number of standard deviations from the baseline beyond which a value is a regression
+     * @param update whether the values may update the baseline, false for the failed or aborted builds
+     * @return the regressions, or an empty list if there are none or the baseline isn't made of enough builds yet
+     */
+    public synchronized List<Regression> check(String simulationName, long[] values, double threshold, boolean update)
+            throws IOException {
+        if (estimates == null) {
+            read();
+        }
+        Estimate[] simulationEstimates = estimates.get(simulationName);
+        if (simulationEstimates == null) {
+            simulationEstimates = new Estimate[TrendMetric.values().length];
+            estimates.put(simulationName, simulationEstimates);
+        }
+
+        List<Regression> regressions = new ArrayList<Regression>();
+        for (TrendMetric metric : LATENCY_METRICS) {
+            Estimate estimate = simulationEstimates[metric.ordinal()];
+            long value = get(values, metric);
+            if (estimate != null && estimate.count >= MIN_BUILDS && value - estimate.mean > margin(estimate, threshold)) {
+                regressions.add(new Regression(simulationName, metric, value, estimate.mean, estimate.getDeviation()));
+            }
+        }
+        for (TrendMetric metric : THROUGHPUT_METRICS) {
+            Estimate estimate = simulationEstimates[metric.ordinal()];
+            long value = get(values, metric);
+            if (estimate != null && estimate.count >= MIN_BUILDS && estimate.mean - value > margin(estimate, threshold)) {
+                regressions.add(new Regression(simulationName, metric, value, estimate.mean, estimate.getDeviation()));
+            }
+        }
+
+        if (!update) {
+            return Collections.unmodifiableList(regressions);
+        }
+        if (regressions.isEmpty()) {
+            add(simulationEstimates, values);
+            candidates.remove(simulationName);
+        } else {
+            Estimate[] candidate = candidates.get(simulationName);
+            if (candidate == null) {
+                candidate = new Estimate[simulationEstimates.length];
+                candidates.put(simulationName, candidate);
+            }
+            add(candidate, values);
+            if (candidate[0].count >= ACCEPTED_REGRESSIONS) {
+                // a lasting change, the next builds are checked against it
+                estimates.put(simulationName, candidate);
+                candidates.remove(simulationName);
+            }
+        }
+        write();
+        return Collections.unmodifiableList(regressions);
+    }
+
+    private static void add(Estimate[] simulationEstimates, long[] values) {
+        for (int i = 0; i < simulationEstimates.length; i++) {
+            if (simulationEstimates[i] == null) {
+                simulationEstimates[i] = new Estimate();
+            }
+            simulationEstimates[i].add(i < values.length ? values[i] : 0);
+        }
+    }
+
+    private static long get(long[] values, TrendMetric metric) {
+        return metric.ordinal() < values.length ? values[metric.ordinal()] : 0;
+    }
+
+    private static double margin(Estimate estimate, double threshold) {
+        return Math.max(threshold * estimate.getDeviation(), MIN_RELATIVE_CHANGE * estimate.mean);
+    }
+
+    private void read() throws IOException {
+        Map<String, Estimate[]> readEstimates = new HashMap<String, Estimate[]>();
+        Map<String, Estimate[]> readCandidates = new HashMap<String, Estimate[]>();
+        if (file.isFile()) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                int version = in.readInt() == MAGIC ? in.readInt() : -1;
+                if (version < 1 || version > VERSION) {
+                    throw new IOException("Not a Gatling regression baseline: " + file);
+                }
+                int simulations = in.readInt();
+                for (int s = 0; s < simulations; s++) {
+                    String simulationName = in.readUTF();
+                    readEstimates.put(simulationName, readEstimates(in));
+                    // version 1 had no candidate baselines
+                    if (version > 1) {
+                        Estimate[] candidate = readEstimates(in);
+                        if (candidate[0] != null) {
+                            readCandidates.put(simulationName, candidate);
+                        }
+                    }
+                }
+            } finally {
+                in.close();
+            }
+        }
+        estimates = readEstimates;
+        candidates = readCandidates;
+    }
+
+    private static Estimate[] readEstimates(DataInputStream in) throws IOException {
+        int metricCount = TrendMetric.values().length;
+        int count = in.readInt();
+        Estimate[] read = new Estimate[metricCount];
+        for (int i = 0; i < count; i++) {
+            Estimate estimate = new Estimate();
+            estimate.count = in.readInt();
+            estimate.mean = in.readDouble();
+            estimate.variance = in.readDouble();
+            // metrics added since the file was written start from scratch
+            if (i < metricCount) {
+                read[i] = estimate;
+            }
+        }
+        return read;
+    }
+
+    private void write() throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(estimates.size());
+            for (Map.Entry<String, Estimate[]> entry : estimates.entrySet()) {
+                out.writeUTF(entry.getKey());
+                writeEstimates(out, entry.getValue());
+                Estimate[] candidate = candidates.get(entry.getKey());
+                writeEstimates(out, candidate != null ? candidate : new Estimate[0]);
+            }
+        } finally {
+            out.close();
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeEstimates(DataOutputStream out, Estimate[] simulationEstimates) throws IOException {
+        out.writeInt(simulationEstimates.length);
+        for (Estimate estimate : simulationEstimates) {
+            if (estimate == null) {
+                estimate = new Estimate();
+            }
+            out.writeInt(estimate.count);
+            out.writeDouble(estimate.mean);
+            out.writeDouble(estimate.variance);
+        }
+    }
+
+    /**
+     * An exponentially weighted moving average and variance.
+     */
+    static final class Estimate {
+        int count;
+        double mean;
+        double variance;
+
+        void add(long value) {
+            if (count == 0) {
+                mean = value;
+            } else {
+                double difference = value - mean;
+                double increment = SMOOTHING * difference;
+                mean += increment;
+                variance = (1 - SMOOTHING) * (variance + difference * increment);
+            }
+            count++;
+        }
+
+        double getDeviation() {
+            return Math.sqrt(variance);
+        }
+    }
+}
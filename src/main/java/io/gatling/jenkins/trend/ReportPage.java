@@ -0,0 +1,117 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.trend;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A page of the builds with Gatling reports, newest first, read from the
+ * {@link TrendIndex}. Pages are chained by the number of their oldest build,
+ * so the cost of a page only depends on its size.
+ */
+public final class ReportPage {
+
+    private final List<Entry> entries;
+    private final int next;
+
+    private ReportPage(List<Entry> entries, int next) {
+        this.entries = entries;
+        this.next = next;
+    }
+
+    /**
+     * @param records the records of the trend index, sorted by build number
+     * @param before only list the builds with a lower number, or 0 to start from the last build
+     * @param size the maximum number of builds in the page
+     */
+    public static ReportPage of(List<TrendRecord> records, int before, int size) {
+        int end = before > 0 ? indexOf(records, before) : records.size();
+        List<Entry> entries = new ArrayList<Entry>();
+        Entry entry = null;
+        int i = end - 1;
+        for (; i >= 0; i--) {
+            TrendRecord record = records.get(i);
+            if (entry == null || record.getBuildNumber() != entry.buildNumber) {
+                if (entries.size() == size) {
+                    break;
+                }
+                entry = new Entry(record.getBuildNumber(), record.getTimestamp());
+                entries.add(entry);
+            }
+            // records of a build are in archiving order
+            entry.simulationNames.add(0, record.getSimulationName());
+        }
+        return new ReportPage(Collections.unmodifiableList(entries), i >= 0 && entry != null ? entry.buildNumber : 0);
+    }
+
+    /**
+     * @return the index of the first record of a build number or above
+     */
+    private static int indexOf(List<TrendRecord> records, int buildNumber) {
+        int low = 0;
+        int high = records.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (records.get(middle).getBuildNumber() < buildNumber) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return the cursor of the next page, or 0 if this is the last page
+     */
+    public int getNext() {
+        return next;
+    }
+
+    public static final class Entry {
+        private final int buildNumber;
+        private final long timestamp;
+        private final List<String> simulationNames = new ArrayList<String>();
+
+        Entry(int buildNumber, long timestamp) {
+            this.buildNumber = buildNumber;
+            this.timestamp = timestamp;
+        }
+
+        public int getBuildNumber() {
+            return buildNumber;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public Date getTime() {
+            return new Date(timestamp);
+        }
+
+        public List<String> getSimulationNames() {
+            return Collections.unmodifiableList(simulationNames);
+        }
+    }
+}
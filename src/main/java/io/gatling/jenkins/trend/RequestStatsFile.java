@@ -0,0 +1,189 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.trend;
+
+import hudson.model.Job;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The statistics of every request of the simulations of a build, extracted
+ * from the stats.json files when the reports are archived, so that request
+ * trends can be drawn without parsing the reports again.
+ *
+ * The file starts with a header, the build number and the build timestamp,
+ * followed, for each simulation, by its name, its number of requests, and
+ * for each request its path, its number of values and the values of the
+ * {@link TrendMetric}s. Lookups stream through the file and only keep the
+ * requested data.
+ */
+public final class RequestStatsFile {
+
+    public static final String FILE_NAME = "gatling-request-stats.bin";
+
+    private static final int MAGIC = 0x47545251;
+    private static final int VERSION = 1;
+
+    private RequestStatsFile() {}
+
+    /**
+     * @return the file of a build, which is found without loading the build
+     */
+    public static File getFile(Job<?, ?> job, int buildNumber) {
+        return new File(new File(job.getBuildDir(), Integer.toString(buildNumber)), FILE_NAME);
+    }
+
+    /**
+     * @param statsBySimulation the values of the {@link TrendMetric}s of each request, by simulation name
+     */
+    public static void write(File file, int buildNumber, long timestamp, Map<String, Map<String, long[]>> statsBySimulation)
+            throws IOException {
+        // readers never see a partially written file
+        File tmp = new File(file.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(buildNumber);
+            out.writeLong(timestamp);
+            out.writeInt(statsBySimulation.size());
+            for (Map.Entry<String, Map<String, long[]>> simulation : statsBySimulation.entrySet()) {
+                out.writeUTF(simulation.getKey());
+                out.writeInt(simulation.getValue().size());
+                for (Map.Entry<String, long[]> request : simulation.getValue().entrySet()) {
+                    out.writeUTF(request.getKey());
+                    long[] values = request.getValue();
+                    out.writeShort(values.length);
+                    for (long value : values) {
+                        out.writeLong(value);
+                    }
+                }
+            }
+        } finally {
+            out.close();
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return the statistics of a request as a record named after the request,
+     * or null if the file doesn't exist or doesn't have the request
+     */
+    public static TrendRecord read(File file, String simulationName, String requestName) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        DataInputStream in = open(file);
+        try {
+            int buildNumber = in.readInt();
+            long timestamp = in.readLong();
+            int simulations = in.readInt();
+            for (int s = 0; s < simulations; s++) {
+                boolean simulation = in.readUTF().equals(simulationName);
+                int requests = in.readInt();
+                for (int r = 0; r < requests; r++) {
+                    boolean request = false;
+                    if (simulation) {
+                        request = in.readUTF().equals(requestName);
+                    } else {
+                        skipUTF(in);
+                    }
+                    int valueCount = in.readUnsignedShort();
+                    if (request) {
+                        long[] values = new long[valueCount];
+                        for (int i = 0; i < valueCount; i++) {
+                            values[i] = in.readLong();
+                        }
+                        return new TrendRecord(buildNumber, timestamp, requestName, values);
+                    }
+                    skipFully(in, valueCount * 8L);
+                }
+            }
+            return null;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * @return the paths of the requests of a simulation, or an empty list if the file doesn't exist
+     */
+    public static List<String> readRequestNames(File file, String simulationName) throws IOException {
+        List<String> names = new ArrayList<String>();
+        if (!file.isFile()) {
+            return names;
+        }
+        DataInputStream in = open(file);
+        try {
+            in.readInt();
+            in.readLong();
+            int simulations = in.readInt();
+            for (int s = 0; s < simulations; s++) {
+                boolean simulation = in.readUTF().equals(simulationName);
+                int requests = in.readInt();
+                for (int r = 0; r < requests; r++) {
+                    if (simulation) {
+                        names.add(in.readUTF());
+                    } else {
+                        skipUTF(in);
+                    }
+                    skipFully(in, in.readUnsignedShort() * 8L);
+                }
+                if (simulation) {
+                    break;
+                }
+            }
+            return names;
+        } finally {
+            in.close();
+        }
+    }
+
+    private static DataInputStream open(File file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            in.close();
+            throw new IOException("Not a Gatling request statistics file: " + file);
+        }
+        return in;
+    }
+
+    private static void skipUTF(DataInputStream in) throws IOException {
+        skipFully(in, in.readUnsignedShort());
+    }
+
+    private static void skipFully(DataInputStream in, long length) throws IOException {
+        while (length > 0) {
+            int skipped = in.skipBytes((int) Math.min(length, Integer.MAX_VALUE));
+            if (skipped <= 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            length -= skipped;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.trend;
+
+import hudson.model.Job;
+import hudson.model.Run;
+import io.gatling.jenkins.GatlingBuildAction;
+import io.gatling.jenkins.SimulationHeader;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Job level index of the global statistics of every archived simulation, so
+ * that the trend charts don't have to load the builds of the job.
+ *
+ * The index is an append-only binary file in the job directory: a header,
+ * then one {@link TrendRecord} per simulation of a build, holding the build
+ * number, the build timestamp, the simulation name, the number of values and
+ * the values of the {@link TrendMetric}s. Completed builds are appended by the
+ * {@link io.gatling.jenkins.GatlingRunListener}, deleted builds are removed by
+ * rewriting the file, and a missing or unreadable index is rebuilt from the
+ * builds of the job.
+ */
+public final class TrendIndex {
+
+    public static final String FILE_NAME = "gatling-trend.idx";
+
+    private static final int MAGIC = 0x47544958;
+    private static final int VERSION = 1;
+
+    private static final Logger logger = Logger.getLogger(TrendIndex.class.getName());
+
+    private static final Map<Job<?, ?>, TrendIndex> INDEXES = new WeakHashMap<Job<?, ?>, TrendIndex>();
+
+    private static final Comparator<TrendRecord> BY_BUILD_NUMBER = new Comparator<TrendRecord>() {
+        public int compare(TrendRecord r1, TrendRecord r2) {
+            return r1.getBuildNumber() < r2.getBuildNumber() ? -1 : r1.getBuildNumber() == r2.getBuildNumber() ? 0 : 1;
+        }
+    };
+
+    private final File file;
+    // weak, not to keep the key of the cache of indexes reachable
+    private final WeakReference<Job<?, ?>> job;
+
+    private List<TrendRecord> records;
+    private long validLength;
+    private long lastModified;
+    private long length;
+
+    public static TrendIndex forJob(Job<?, ?> job) {
+        File file = new File(job.getRootDir(), FILE_NAME);
+        synchronized (INDEXES) {
+            TrendIndex index = INDEXES.get(job);
+            // a renamed job has a new directory
+            if (index == null || !index.file.equals(file)) {
+                index = new TrendIndex(file, job);
+                INDEXES.put(job, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Drops the cached index of a deleted or moved job.
+     */
+    public static void forget(Job<?, ?> job) {
+        synchronized (INDEXES) {
+            INDEXES.remove(job);
+        }
+    }
+
+    /**
+     * Unlike {@link #forJob(Job)}, never builds the index of a job.
+     *
+     * @return whether the job has a trend index, which is the case of the jobs with Gatling reports
+     */
+    public static boolean exists(Job<?, ?> job) {
+        return new File(job.getRootDir(), FILE_NAME).isFile();
+    }
+
+    /**
+     * @param job the job to rebuild the index from when it is missing, or null to start from an empty index
+     */
+    TrendIndex(File file, Job<?, ?> job) {
+        this.file = file;
+        this.job = new WeakReference<Job<?, ?>>(job);
+    }
+
+    /**
+     * @return the records of the index, sorted by build number
+     */
+    public synchronized List<TrendRecord> getRecords() throws IOException {
+        ensureLoaded();
+        return records;
+    }
+
+    /**
+     * @return an opaque value that changes whenever the content of the index changes
+     */
+    public synchronized String getRevision() throws IOException {
+        ensureLoaded();
+        return Long.toHexString(lastModified) + '-' + Long.toHexString(length);
+    }
+
+    /**
+     * Adds the simulations archived by a build, unless they are already indexed.
+     */
+    public synchronized void add(Run<?, ?> run) throws IOException {
+        List<TrendRecord> added = getRecords(run);
+        if (added.isEmpty()) {
+            return;
+        }
+        ensureLoaded();
+        for (TrendRecord record : records) {
+            if (record.getBuildNumber() == run.getNumber()) {
+                return;
+            }
+        }
+        append(added);
+    }
+
+    /**
+     * Removes the simulations of a build, rewriting the index without them.
+     */
+    public synchronized void remove(int buildNumber) throws IOException {
+        if (!file.isFile()) {
+            // will be rebuilt from the remaining builds when needed
+            return;
+        }
+        ensureLoaded();
+        List<TrendRecord> kept = new ArrayList<TrendRecord>(records.size());
+        for (TrendRecord record : records) {
+            if (record.getBuildNumber() != buildNumber) {
+                kept.add(record);
+            }
+        }
+        if (kept.size() != records.size()) {
+            write(kept);
+        }
+    }
+
+    synchronized void append(List<TrendRecord> added) throws IOException {
+        ensureLoaded();
+        if (file.length() > validLength) {
+            // drop the partial record of an interrupted append
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                raf.setLength(validLength);
+            } finally {
+                raf.close();
+            }
+        }
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        try {
+            for (TrendRecord record : added) {
+                record.writeTo(out);
+            }
+        } finally {
+            out.close();
+        }
+        List<TrendRecord> all = new ArrayList<TrendRecord>(records.size() + added.size());
+        all.addAll(records);
+        all.addAll(added);
+        loaded(all, file.length());
+    }
+
+    private void ensureLoaded() throws IOException {
+        if (records != null && file.lastModified() == lastModified && file.length() == length) {
+            return;
+        }
+        if (!file.isFile()) {
+            write(getHistory());
+            return;
+        }
+        try {
+            read();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Rebuilding the unreadable Gatling trend index " + file, e);
+            write(getHistory());
+        }
+    }
+
+    private void read() throws IOException {
+        byte[] content = Files.readAllBytes(file.toPath());
+        ByteArrayInputStream bytes = new ByteArrayInputStream(content);
+        DataInputStream in = new DataInputStream(bytes);
+        if (content.length < 8 || in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a Gatling trend index: " + file);
+        }
+        List<TrendRecord> read = new ArrayList<TrendRecord>();
+        long readLength = content.length - bytes.available();
+        try {
+            while (bytes.available() > 0) {
+                read.add(TrendRecord.readFrom(in));
+                readLength = content.length - bytes.available();
+            }
+        } catch (EOFException e) {
+            logger.log(Level.FINE, "Ignoring the incomplete last record of " + file, e);
+        }
+        loaded(read, readLength);
+    }
+
+    private void write(List<TrendRecord> content) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            for (TrendRecord record : content) {
+                record.writeTo(out);
+            }
+        } finally {
+            out.close();
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        loaded(content, file.length());
+    }
+
+    private void loaded(List<TrendRecord> content, long validLength) {
+        List<TrendRecord> sorted = new ArrayList<TrendRecord>(content);
+        // builds running concurrently can complete out of order
+        Collections.sort(sorted, BY_BUILD_NUMBER);
+        this.records = Collections.unmodifiableList(sorted);
+        this.validLength = validLength;
+        this.lastModified = file.lastModified();
+        this.length = file.length();
+    }
+
+    private List<TrendRecord> getHistory() {
+        List<TrendRecord> history = new ArrayList<TrendRecord>();
+        Job<?, ?> job = this.job.get();
+        if (job == null) {
+            return history;
+        }
+        for (Run<?, ?> run : job.getBuilds()) {
+            history.addAll(getRecords(run));
+        }
+        return history;
+    }
+
+    static List<TrendRecord> getRecords(Run<?, ?> run) {
+        List<TrendRecord> records = new ArrayList<TrendRecord>();
+        GatlingBuildAction action = run.getAction(GatlingBuildAction.class);
+        if (action == null) {
+            return records;
+        }
+        for (SimulationHeader sim : action.getSimulationHeaders()) {
+            if (sim.getValues() != null) {
+                records.add(new TrendRecord(run.getNumber(), run.getTimeInMillis(), sim.getSimulationName(),
+                        sim.getValues()));
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.trend;
+
+import io.gatling.jenkins.RequestReport;
+import io.gatling.jenkins.ResponseTimeGroup;
+import io.gatling.jenkins.Statistics;
+
+/**
+ * The global statistics of a simulation that are kept in the {@link TrendIndex}.
+ *
+ * The index stores the values in declaration order, so new metrics must be
+ * added at the end.
+ */
+public enum TrendMetric {
+    REQUESTS {
+        @Override
+        long extract(RequestReport report) {
+            return total(report.getNumberOfRequests());
+        }
+    },
+    KO_REQUESTS {
+        @Override
+        long extract(RequestReport report) {
+            return ko(report.getNumberOfRequests());
+        }
+    },
+    MIN_RESPONSE_TIME {
+        @Override
+        long extract(RequestReport report) {
+            return total(report.getMinResponseTime());
+        }
+    },
+    MAX_RESPONSE_TIME {
+        @Override
+        long extract(RequestReport report) {
+            return total(report.getMaxResponseTime());
+        }
+    },
+    MEAN_RESPONSE_TIME {
+        @Override
+        long extract(RequestReport report) {
+            return total(report.getMeanResponseTime());
+        }
+    },
+    STANDARD_DEVIATION {
+        @Override
+        long extract(RequestReport report) {
+            return total(report.getStandardDeviation());
+        }
+    },
+    PERCENTILE_1 {
+        @Override
+        long extract(RequestReport report) {
+            return total(report.getPercentiles1());
+        }
+    },
+    PERCENTILE_2 {
+        @Override
+        long extract(RequestReport report) {
+            return total(report.getPercentiles2());
+        }
+    },
+    PERCENTILE_3 {
+        @Override
+        long extract(RequestReport report) {
+            return total(report.getPercentiles3());
+        }
+    },
+    PERCENTILE_4 {
+        @Override
+        long extract(RequestReport report) {
+            return total(report.getPercentiles4());
+        }
+    },
+    REQUESTS_PER_SECOND {
+        @Override
+        long extract(RequestReport report) {
+            return total(report.getMeanNumberOfRequestsPerSecond());
+        }
+    },
+    GROUP_1 {
+        @Override
+        long extract(RequestReport report) {
+            return count(report.getGroup1());
+        }
+    },
+    GROUP_2 {
+        @Override
+        long extract(RequestReport report) {
+            return count(report.getGroup2());
+        }
+    },
+    GROUP_3 {
+        @Override
+        long extract(RequestReport report) {
+            return count(report.getGroup3());
+        }
+    },
+    GROUP_4 {
+        @Override
+        long extract(RequestReport report) {
+            return count(report.getGroup4());
+        }
+    };
+
+    abstract long extract(RequestReport report);
+
+    public static long[] extractAll(RequestReport report) {
+        TrendMetric[] metrics = values();
+        long[] values = new long[metrics.length];
+        for (int i = 0; i < metrics.length; i++) {
+            values[i] = metrics[i].extract(report);
+        }
+        return values;
+    }
+
+    private static long total(Statistics statistics) {
+        return statistics != null ? statistics.getTotal() : 0;
+    }
+
+    private static long ko(Statistics statistics) {
+        return statistics != null ? statistics.getKO() : 0;
+    }
+
+    private static long count(ResponseTimeGroup group) {
+        return group != null ? group.getCount() : 0;
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.trend;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The global statistics of one simulation of a build, as stored in the {@link TrendIndex}.
+ */
+public final class TrendRecord {
+    private final int buildNumber;
+    private final long timestamp;
+    private final String simulationName;
+    private final long[] values;
+
+    TrendRecord(int buildNumber, long timestamp, String simulationName, long[] values) {
+        this.buildNumber = buildNumber;
+        this.timestamp = timestamp;
+        this.simulationName = simulationName;
+        this.values = values;
+    }
+
+    public int getBuildNumber() {
+        return buildNumber;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getSimulationName() {
+        return simulationName;
+    }
+
+    /**
+     * @return the value of the metric, or 0 if it was added after the record was indexed
+     */
+    public long get(TrendMetric metric) {
+        int index = metric.ordinal();
+        return index < values.length ? values[index] : 0;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(buildNumber);
+        out.writeLong(timestamp);
+        out.writeUTF(simulationName);
+        out.writeShort(values.length);
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+
+    static TrendRecord readFrom(DataInput in) throws IOException {
+        int buildNumber = in.readInt();
+        long timestamp = in.readLong();
+        String simulationName = in.readUTF();
+        long[] values = new long[in.readUnsignedShort()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readLong();
+        }
+        return new TrendRecord(buildNumber, timestamp, simulationName, values);
+    }
+}
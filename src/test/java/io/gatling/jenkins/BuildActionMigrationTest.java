@@ -0,0 +1,77 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class BuildActionMigrationTest {
+
+    private static final String LEGACY_ACTION = "<build>\n  <actions>\n"
+            + "    <io.gatling.jenkins.GatlingBuildAction plugin=\"gatling@1.1.1\">\n"
+            + "      <simulations>\n        <io.gatling.jenkins.BuildSimulation>\n"
+            + "          <simulationName>MySimulation</simulationName>\n"
+            + "          <requestReport>\n            <name>Global Information</name>\n          </requestReport>\n"
+            + "        </io.gatling.jenkins.BuildSimulation>\n      </simulations>\n"
+            + "    </io.gatling.jenkins.GatlingBuildAction>\n  </actions>\n</build>\n";
+
+    private static final String CURRENT_ACTION = "<build>\n  <actions>\n"
+            + "    <io.gatling.jenkins.GatlingBuildAction plugin=\"gatling@1.2.0\">\n"
+            + "      <headers>\n        <io.gatling.jenkins.SimulationHeader>\n"
+            + "          <simulationName>MySimulation</simulationName>\n"
+            + "        </io.gatling.jenkins.SimulationHeader>\n      </headers>\n"
+            + "    </io.gatling.jenkins.GatlingBuildAction>\n  </actions>\n</build>\n";
+
+    private static final String OTHER_PLUGIN = "<build>\n  <actions>\n"
+            + "    <other.Action>\n      <simulations>\n      </simulations>\n    </other.Action>\n"
+            + "  </actions>\n</build>\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void findsTheBuildsWithALegacyAction() throws IOException {
+        File buildDir = temporaryFolder.newFolder("builds");
+        writeBuild(buildDir, "12", LEGACY_ACTION);
+        writeBuild(buildDir, "3", LEGACY_ACTION);
+        writeBuild(buildDir, "4", CURRENT_ACTION);
+        writeBuild(buildDir, "5", OTHER_PLUGIN);
+        writeBuild(buildDir, "2017-01-01_12-00-00", LEGACY_ACTION);
+        new File(buildDir, "6").mkdir();
+
+        assertEquals(Arrays.asList(3, 12), BuildActionMigration.getCandidateBuildNumbers(buildDir));
+    }
+
+    @Test
+    public void findsNothingWithoutBuilds() {
+        assertEquals(0, BuildActionMigration.getCandidateBuildNumbers(new File(temporaryFolder.getRoot(), "missing")).size());
+    }
+
+    private static void writeBuild(File buildDir, String name, String buildXml) throws IOException {
+        File dir = new File(buildDir, name);
+        dir.mkdir();
+        Files.write(new File(dir, "build.xml").toPath(), buildXml.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BuildActionSidecarTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void readsWhatWasWritten() throws IOException {
+        File rootDir = temporaryFolder.getRoot();
+        Statistics requests = new Statistics();
+        requests.setTotal(10);
+        requests.setOK(8);
+        requests.setKO(2);
+        RequestReport report = new RequestReport();
+        report.setName("Global Information");
+        report.setNumberOfRequests(requests);
+        AssertionData assertion = new AssertionData();
+        assertion.simulationName = "MySimulation";
+        assertion.assertionType = "percentage of failed requests";
+        assertion.expectedValue = "5";
+        assertion.actualValue = "20";
+        assertion.values = new ArrayList<Integer>(Arrays.asList(20));
+
+        BuildActionSidecar.write(rootDir,
+                Collections.singletonList(new BuildSimulation("MySimulation", report, null)),
+                Collections.singletonList(assertion));
+        BuildActionSidecar.Payload payload = BuildActionSidecar.read(rootDir);
+
+        assertEquals(1, payload.simulations.size());
+        assertEquals("MySimulation", payload.simulations.get(0).simulationName);
+        RequestReport readReport = payload.simulations.get(0).requestReport;
+        assertEquals("Global Information", readReport.getName());
+        assertEquals(10, readReport.getNumberOfRequests().getTotal());
+        assertEquals(8, readReport.getNumberOfRequests().getOK());
+        assertEquals(2, readReport.getNumberOfRequests().getKO());
+        assertNull(readReport.getPercentiles95());
+
+        // the values filled in by the publisher are kept, even where the report files have none
+        AssertionData readAssertion = payload.assertions.get(0);
+        assertEquals("MySimulation", readAssertion.simulationName);
+        assertEquals("percentage of failed requests", readAssertion.assertionType);
+        assertEquals("5", readAssertion.expectedValue);
+        assertEquals("20", readAssertion.actualValue);
+        assertEquals(Arrays.asList(20), readAssertion.values);
+        assertTrue(new File(rootDir, BuildActionSidecar.FILE_NAME).isFile());
+    }
+
+    @Test
+    public void returnsNullWithoutASidecarFile() throws IOException {
+        assertNull(BuildActionSidecar.read(temporaryFolder.getRoot()));
+    }
+}
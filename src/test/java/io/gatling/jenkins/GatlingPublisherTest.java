@@ -0,0 +1,91 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GatlingPublisherTest {
+
+    private final ByteArrayOutputStream log = new ByteArrayOutputStream();
+    private final PrintStream logger = new PrintStream(log, true);
+
+    @Test
+    public void neverRunsMoreSimulationsThanTheArchiveThreads() throws InterruptedException {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        List<String> names = new ArrayList<String>();
+        for (int i = 0; i < 8; i++) {
+            final int result = i;
+            tasks.add(new Callable<Integer>() {
+                public Integer call() throws InterruptedException {
+                    int now = running.incrementAndGet();
+                    synchronized (maxRunning) {
+                        maxRunning.set(Math.max(maxRunning.get(), now));
+                    }
+                    Thread.sleep(50);
+                    running.decrementAndGet();
+                    return result;
+                }
+            });
+            names.add("simulation-" + i);
+        }
+
+        List<Integer> results = GatlingPublisher.runOnArchivePool(tasks, names, 2, logger);
+
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7), results);
+        assertTrue("ran " + maxRunning.get() + " simulations at once", maxRunning.get() <= 2);
+    }
+
+    @Test
+    public void keepsArchivingTheOtherSimulationsWhenOneFails() throws InterruptedException {
+        List<Callable<String>> tasks = Arrays.asList(
+                constant("first"),
+                new Callable<String>() {
+                    public String call() throws IOException {
+                        throw new IOException("corrupted report");
+                    }
+                },
+                constant("third"));
+
+        List<String> results = GatlingPublisher.runOnArchivePool(tasks,
+                Arrays.asList("simulation-1", "simulation-2", "simulation-3"), 0, logger);
+
+        assertEquals(Arrays.asList("first", null, "third"), results);
+        assertTrue(log.toString().contains("ERROR in archiving simulation 'simulation-2'"));
+        assertTrue(log.toString().contains("corrupted report"));
+    }
+
+    private static Callable<String> constant(final String result) {
+        return new Callable<String>() {
+            public String call() {
+                return result;
+            }
+        };
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.ListView;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.net.URLEncoder;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import static io.gatling.jenkins.PluginConstants.SPARKLINE_BUILDS;
+import static io.gatling.jenkins.PluginConstants.URL_NAME;
+
+/**
+ * Times the pages of a job with a long Gatling history, to reproduce the
+ * slow pages of the jobs with thousands of builds without a production
+ * controller. It only runs when asked to, and needs no network access:
+ *
+ * <pre>mvn test -Dtest=LargeHistoryLoadTest -Dgatling.loadTest=true -Dgatling.loadTest.builds=5000 -Dgatling.loadTest.simulations=20</pre>
+ *
+ * The latency percentiles of each page and the heap used are printed to the
+ * standard output. The first render of each page, which builds the trend
+ * index and fills the caches, is reported apart from the following ones.
+ */
+public class LargeHistoryLoadTest {
+
+    private static final String JOB_NAME = "large-history";
+
+    private static final int BUILDS = Integer.getInteger("gatling.loadTest.builds", 5000);
+    private static final int SIMULATIONS = Integer.getInteger("gatling.loadTest.simulations", 20);
+    private static final int SAMPLES = Integer.getInteger("gatling.loadTest.samples", 20);
+    private static final int RELOADS = Integer.getInteger("gatling.loadTest.reloads", 3);
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    {
+        // generating the history alone takes longer than the default timeout of a test
+        j.timeout = 0;
+    }
+
+    @BeforeClass
+    public static void onlyWhenAsked() {
+        Assume.assumeTrue(Boolean.getBoolean("gatling.loadTest"));
+    }
+
+    @Test
+    public void timePagesOfALargeHistory() throws Exception {
+        long start = System.nanoTime();
+        new SyntheticHistory(j, BUILDS, SIMULATIONS).createProject(JOB_NAME);
+        report("Generated %d builds of %d simulations in %d s", BUILDS, SIMULATIONS,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+
+        time("Jenkins reload", RELOADS, new Callable<Object>() {
+            public Object call() throws Exception {
+                j.jenkins.reload();
+                return null;
+            }
+        });
+        reportHeap("after reload");
+
+        final FreeStyleProject project = j.jenkins.getItemByFullName(JOB_NAME, FreeStyleProject.class);
+        ListView view = new ListView("gatling", j.jenkins);
+        j.jenkins.addView(view);
+        view.add(project);
+        view.getColumns().add(new LastBuildColumn());
+        view.getColumns().add(new SparklineColumn(SPARKLINE_BUILDS));
+
+        final JenkinsRule.WebClient wc = j.createWebClient();
+        // only the server side rendering is timed
+        wc.setJavaScriptEnabled(false);
+
+        timePage(wc, "Project page", project.getUrl());
+        timePage(wc, "Gatling trends page", project.getUrl() + URL_NAME + "/");
+        timeJSON(wc, "Trend JSON", project.getUrl() + URL_NAME + "/api/trend?metric=p95");
+        timeJSON(wc, "Reports JSON", project.getUrl() + URL_NAME + "/api/reports?size=20");
+        timePage(wc, "Request trends page", project.getUrl() + URL_NAME + "/requests?simulation=Simulation0&request="
+                + URLEncoder.encode(SyntheticHistory.REQUEST_PREFIX + 0, "UTF-8"));
+        timePage(wc, "List view with Gatling columns", view.getUrl());
+        timePage(wc, "Last build page", project.getLastBuild().getUrl());
+        reportHeap("after rendering");
+    }
+
+    private void timePage(final JenkinsRule.WebClient wc, String name, final String url) throws Exception {
+        time(name, SAMPLES, new Callable<Object>() {
+            public Object call() throws Exception {
+                return wc.goTo(url);
+            }
+        });
+    }
+
+    private void timeJSON(final JenkinsRule.WebClient wc, String name, final String url) throws Exception {
+        time(name, SAMPLES, new Callable<Object>() {
+            public Object call() throws Exception {
+                return wc.goTo(url, "application/json");
+            }
+        });
+    }
+
+    /**
+     * Runs the call once, then the given number of times, and reports the first
+     * latency and the percentiles of the following ones.
+     */
+    private static void time(String name, int samples, Callable<?> call) throws Exception {
+        long start = System.nanoTime();
+        call.call();
+        long first = System.nanoTime() - start;
+
+        long[] latencies = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            start = System.nanoTime();
+            call.call();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        report("%-32s first %8.1f ms   p50 %8.1f ms   p90 %8.1f ms   p99 %8.1f ms   max %8.1f ms", name,
+                millis(first), millis(percentile(latencies, 50)), millis(percentile(latencies, 90)),
+                millis(percentile(latencies, 99)), millis(percentile(latencies, 100)));
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static void reportHeap(String when) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        report("Heap used %s: %d MB of %d MB", when, used >> 20, runtime.maxMemory() >> 20);
+    }
+
+    private static void report(String format, Object... args) {
+        System.out.println("[gatling load test] " + String.format(Locale.ROOT, format, args));
+    }
+}
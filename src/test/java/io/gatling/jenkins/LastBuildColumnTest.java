@@ -0,0 +1,123 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import hudson.model.Descriptor;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Job;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.tasks.Publisher;
+import hudson.util.DescribableList;
+import io.gatling.jenkins.trend.LastBuildMarker;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.stub;
+
+public class LastBuildColumnTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private LastBuildColumn column;
+
+    @Before
+    public void setUp() {
+        column = new LastBuildColumn();
+    }
+
+    @Test
+    public void detectsAFreestyleJobWithTheGatlingPublisher() {
+        FreeStyleProject project = freestyleProject(new GatlingPublisher(true));
+
+        assertEquals("N/A", column.getShortName(project));
+
+        FreeStyleBuild build = mock(FreeStyleBuild.class);
+        stub(build.getResult()).toReturn(Result.FAILURE);
+        stub(project.getLastCompletedBuild()).toReturn(build);
+        assertEquals("FAILURE", column.getShortName(project));
+    }
+
+    @Test
+    public void ignoresAFreestyleJobWithoutTheGatlingPublisher() {
+        FreeStyleProject project = freestyleProject(null);
+        FreeStyleBuild build = mock(FreeStyleBuild.class);
+        stub(build.getResult()).toReturn(Result.FAILURE);
+        // the publisher is what counts for freestyle jobs, not the actions of their builds
+        stub(build.getAction(GatlingBuildAction.class)).toReturn(mock(GatlingBuildAction.class));
+        stub(project.getLastCompletedBuild()).toReturn(build);
+
+        assertEquals("", column.getShortName(project));
+    }
+
+    @Test
+    public void detectsAnotherJobByTheGatlingActionOfItsLastBuild() {
+        Job<?, ?> job = job();
+        Run run = mock(Run.class);
+        stub(run.getResult()).toReturn(Result.UNSTABLE);
+        stub(run.getDescription()).toReturn("2 regressions");
+        stub(run.getAction(GatlingBuildAction.class)).toReturn(mock(GatlingBuildAction.class));
+        stub(job.getLastCompletedBuild()).toReturn(run);
+
+        assertEquals("2 regressions", column.getShortName(job));
+    }
+
+    @Test
+    public void detectsAnotherJobByItsLastBuildMarker() throws IOException {
+        Job<?, ?> job = job();
+        Files.write(new File(temporaryFolder.getRoot(), LastBuildMarker.FILE_NAME).toPath(),
+                "3".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("N/A", column.getShortName(job));
+    }
+
+    @Test
+    public void ignoresAnotherJobWithoutGatlingReports() {
+        Job<?, ?> job = job();
+        Run run = mock(Run.class);
+        stub(run.getResult()).toReturn(Result.FAILURE);
+        stub(job.getLastCompletedBuild()).toReturn(run);
+
+        assertEquals("", column.getShortName(job));
+    }
+
+    private static FreeStyleProject freestyleProject(GatlingPublisher publisher) {
+        //noinspection unchecked
+        DescribableList<Publisher, Descriptor<Publisher>> publishers = mock(DescribableList.class);
+        stub(publishers.get(GatlingPublisher.class)).toReturn(publisher);
+        FreeStyleProject project = mock(FreeStyleProject.class);
+        stub(project.getPublishersList()).toReturn(publishers);
+        return project;
+    }
+
+    private Job<?, ?> job() {
+        Job<?, ?> job = mock(Job.class);
+        stub(job.getRootDir()).toReturn(temporaryFolder.getRoot());
+        stub(job.getFullName()).toReturn("mypipeline");
+        return job;
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import hudson.FilePath;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReportCollectorTest {
+
+    private static final long BUILD_START_TIME = 1500000000000L;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File workspace;
+
+    @Before
+    public void setUp() throws IOException {
+        workspace = temporaryFolder.newFolder("workspace");
+        createReport("oldsimulation-1400000000000", BUILD_START_TIME - 1000);
+        createReport("mysimulation-1500000001000", BUILD_START_TIME + 1000);
+        File sourceDirectory = new File(workspace, "src/test/scala/computerdatabase");
+        assertTrue(sourceDirectory.mkdirs());
+        writeFile(new File(sourceDirectory, "MySimulation.scala"), "class MySimulation");
+    }
+
+    @Test
+    public void collectsOnlyTheReportsOfTheBuild() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        List<ReportFolder> folders = new ReportCollector(BUILD_START_TIME, null, out).invoke(workspace, null);
+
+        assertEquals(1, folders.size());
+        ReportFolder folder = folders.get(0);
+        assertEquals("mysimulation-1500000001000", folder.getName());
+        assertEquals("mysimulation", folder.getSimulationName());
+        assertEquals(BUILD_START_TIME + 1000, folder.getLastModified());
+        assertEquals("{}".length() + "<html/>".length(), folder.getSize());
+
+        File extracted = untar(out.toByteArray());
+        assertTrue(new File(extracted, "mysimulation-1500000001000/js/global_stats.json").isFile());
+        assertTrue(new File(extracted, "mysimulation-1500000001000/index.html").isFile());
+        assertFalse(new File(extracted, "oldsimulation-1400000000000").exists());
+    }
+
+    @Test
+    public void addsTheSimulationSourcesToEachReport() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        new ReportCollector(BUILD_START_TIME, "**/computerdatabase/MySimulation.scala", out).invoke(workspace, null);
+
+        File extracted = untar(out.toByteArray());
+        assertTrue(new File(extracted, "mysimulation-1500000001000/MySimulation.scala").isFile());
+    }
+
+    @Test
+    public void returnsNothingWhenThereIsNoReport() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        List<ReportFolder> folders = new ReportCollector(BUILD_START_TIME, null, out).invoke(temporaryFolder.newFolder(), null);
+
+        assertTrue(folders.isEmpty());
+    }
+
+    private void createReport(String name, long lastModified) throws IOException {
+        File reportDirectory = new File(workspace, "target/gatling/results/" + name);
+        File jsDirectory = new File(reportDirectory, "js");
+        assertTrue(jsDirectory.mkdirs());
+        writeFile(new File(jsDirectory, "global_stats.json"), "{}");
+        writeFile(new File(reportDirectory, "index.html"), "<html/>");
+        assertTrue(reportDirectory.setLastModified(lastModified));
+    }
+
+    private File untar(byte[] tarball) throws Exception {
+        File tarballFile = temporaryFolder.newFile();
+        FileOutputStream os = new FileOutputStream(tarballFile);
+        try {
+            os.write(tarball);
+        } finally {
+            os.close();
+        }
+        File target = temporaryFolder.newFolder();
+        new FilePath(tarballFile).untar(new FilePath(target), FilePath.TarCompression.GZIP);
+        return target;
+    }
+
+    private static void writeFile(File file, String content) throws IOException {
+        FileOutputStream os = new FileOutputStream(file);
+        try {
+            os.write(content.getBytes("UTF-8"));
+        } finally {
+            os.close();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReportCompressorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void compressesOnlyTheSimulationLogByDefault() throws IOException {
+        File report = createReport();
+
+        long saved = ReportCompressor.compress(report, false);
+
+        assertTrue(saved > 0);
+        assertFalse(new File(report, "simulation.log").exists());
+        assertEquals(simulationLog(), gunzip(new File(report, "simulation.log" + ReportCompressor.SUFFIX)));
+        assertTrue(new File(report, "index.html").isFile());
+        assertTrue(new File(report, "js/stats.js").isFile());
+    }
+
+    @Test
+    public void compressesAllTheTextAssetsButTheSimulationSources() throws IOException {
+        File report = createReport();
+
+        ReportCompressor.compress(report, true);
+
+        assertEquals("var stats;", gunzip(new File(report, "js/stats.js" + ReportCompressor.SUFFIX)));
+        assertEquals("<html/>", gunzip(new File(report, "index.html" + ReportCompressor.SUFFIX)));
+        assertTrue(new File(report, "MySimulation.scala").isFile());
+        assertTrue(new File(report, "style/logo.png").isFile());
+    }
+
+    @Test
+    public void preservesTheModificationDate() throws IOException {
+        File report = createReport();
+        File log = new File(report, "simulation.log");
+        assertTrue(log.setLastModified(1000000000000L));
+
+        ReportCompressor.compress(report, false);
+
+        assertEquals(1000000000000L, new File(report, "simulation.log" + ReportCompressor.SUFFIX).lastModified());
+    }
+
+    private File createReport() throws IOException {
+        File report = temporaryFolder.newFolder("mysimulation-1");
+        assertTrue(new File(report, "js").mkdir());
+        assertTrue(new File(report, "style").mkdir());
+        write(new File(report, "simulation.log"), simulationLog());
+        write(new File(report, "index.html"), "<html/>");
+        write(new File(report, "js/stats.js"), "var stats;");
+        write(new File(report, "style/logo.png"), "png");
+        write(new File(report, "MySimulation.scala"), "class MySimulation");
+        return report;
+    }
+
+    private static String simulationLog() {
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            log.append("REQUEST\tuser\t").append(i).append("\thome\t1400000000000\t1400000000042\tOK\n");
+        }
+        return log.toString();
+    }
+
+    private static void write(File file, String content) throws IOException {
+        FileOutputStream os = new FileOutputStream(file);
+        try {
+            os.write(content.getBytes("UTF-8"));
+        } finally {
+            os.close();
+        }
+    }
+
+    private static String gunzip(File file) throws IOException {
+        InputStream in = new GZIPInputStream(new FileInputStream(file));
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toString("UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ReportManifestTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File blobs;
+    private BlobStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        blobs = temporaryFolder.newFolder("blobs");
+        store = new BlobStore(blobs);
+    }
+
+    @Test
+    public void replacesTheReportFilesWithAManifest() throws IOException {
+        File report = createReport("mysimulation-1", "stats 1");
+
+        ReportManifest manifest = ReportManifest.create(report, store);
+
+        assertFalse(new File(report, "js").exists());
+        assertFalse(new File(report, "index.html").exists());
+        assertEquals(3, manifest.getPaths().size());
+        assertEquals("stats 1", read(manifest.resolve(store, "js/stats.js")));
+        assertEquals("<html/>", read(manifest.resolve(store, "index.html")));
+        assertNull(manifest.resolve(store, "js/missing.js"));
+
+        ReportManifest loaded = ReportManifest.load(report);
+        assertNotNull(loaded);
+        assertEquals(manifest.getPaths(), loaded.getPaths());
+    }
+
+    @Test
+    public void storesIdenticalFilesOnce() throws IOException {
+        ReportManifest first = ReportManifest.create(createReport("mysimulation-1", "stats 1"), store);
+        ReportManifest second = ReportManifest.create(createReport("mysimulation-2", "stats 2"), store);
+
+        assertEquals(first.resolve(store, "js/gatling.js"), second.resolve(store, "js/gatling.js"));
+        assertFalse(first.resolve(store, "js/stats.js").equals(second.resolve(store, "js/stats.js")));
+    }
+
+    @Test
+    public void deletesBlobsOnlyWhenNoManifestReferencesThemAnymore() throws IOException {
+        ReportManifest first = ReportManifest.create(createReport("mysimulation-1", "stats 1"), store);
+        ReportManifest second = ReportManifest.create(createReport("mysimulation-2", "stats 2"), store);
+
+        store.release(first.getHashes());
+
+        assertFalse(first.resolve(store, "js/stats.js").exists());
+        assertTrue(second.resolve(store, "js/gatling.js").exists());
+        assertTrue(second.resolve(store, "js/stats.js").exists());
+    }
+
+    @Test
+    public void createsTheManifestsOfSeveralReportsAtOnce() throws IOException {
+        List<ReportManifest> manifests = ReportManifest.create(Arrays.asList(
+                createReport("mysimulation-1", "stats 1"), createReport("mysimulation-2", "stats 2")), store);
+
+        assertEquals(2, manifests.size());
+        assertEquals("stats 1", read(manifests.get(0).resolve(store, "js/stats.js")));
+        assertEquals("stats 2", read(manifests.get(1).resolve(store, "js/stats.js")));
+
+        store.release(manifests.get(0).getHashes());
+
+        assertFalse(manifests.get(0).resolve(store, "js/stats.js").exists());
+        assertTrue(manifests.get(1).resolve(store, "js/gatling.js").exists());
+    }
+
+    @Test
+    public void leavesTheReportsAndTheStoreAsTheyWereOnFailure() throws IOException {
+        ReportManifest first = ReportManifest.create(createReport("mysimulation-1", "stats 1"), store);
+        final File[] copied = new File[1];
+        BlobStore failingStore = new BlobStore(blobs) {
+            @Override
+            void copyToBlob(File file, File blob) throws IOException {
+                if (copied[0] != null) {
+                    throw new IOException("No space left on device");
+                }
+                super.copyToBlob(file, blob);
+                copied[0] = blob;
+            }
+        };
+        File second = createReport("mysimulation-2", "stats 2");
+        File third = createReport("mysimulation-3", "stats 3");
+
+        try {
+            ReportManifest.create(Arrays.asList(second, third), failingStore);
+            fail("the failure to copy a file should be reported");
+        } catch (IOException expected) {
+            // the store is full
+        }
+
+        assertNull(ReportManifest.load(second));
+        assertNull(ReportManifest.load(third));
+        assertEquals("stats 2", read(new File(second, "js/stats.js")));
+        assertEquals("stats 3", read(new File(third, "js/stats.js")));
+        assertEquals("var gatling;", read(new File(third, "js/gatling.js")));
+        assertFalse(copied[0].exists());
+        // the blobs shared with the failed reports weren't counted for them
+        store.release(first.getHashes());
+        assertFalse(first.resolve(store, "js/gatling.js").exists());
+    }
+
+    @Test
+    public void loadReturnsNullForAPlainReport() throws IOException {
+        assertNull(ReportManifest.load(createReport("mysimulation-1", "stats 1")));
+    }
+
+    private File createReport(String name, String stats) throws IOException {
+        File report = temporaryFolder.newFolder(name);
+        File js = new File(report, "js");
+        assertTrue(js.mkdir());
+        write(new File(js, "gatling.js"), "var gatling;");
+        write(new File(js, "stats.js"), stats);
+        write(new File(report, "index.html"), "<html/>");
+        return report;
+    }
+
+    private static void write(File file, String content) throws IOException {
+        FileOutputStream os = new FileOutputStream(file);
+        try {
+            os.write(content.getBytes("UTF-8"));
+        } finally {
+            os.close();
+        }
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), "UTF-8");
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ReportParserTest {
+
+    private static final String GLOBAL_STATS = "{\"name\":\"Global Information\","
+            + "\"numberOfRequests\":{\"total\":120,\"ok\":100,\"ko\":20},"
+            + "\"meanResponseTime\":{\"total\":42,\"ok\":40,\"ko\":50},"
+            + "\"group1\":{\"name\":\"t < 800 ms\",\"count\":90,\"percentage\":75},"
+            + "\"unknownField\":{\"total\":1}}";
+
+    private static final String ASSERTIONS = "{\"simulation\":\"MySimulation\",\"assertions\":["
+            + "{\"path\":\"Global\",\"target\":\"mean response time\",\"result\":true,"
+            + "\"message\":\"Global: mean response time is less than 100\",\"conditionValues\":[100],\"values\":[42]}]}";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void readsTheGlobalStatsAtTheirKnownPath() throws IOException {
+        File report = temporaryFolder.newFolder("mysimulation-1");
+        write(new File(report, ReportParser.GLOBAL_STATS_PATH), GLOBAL_STATS, false);
+
+        assertGlobalStats(ReportParser.readGlobalStats(report));
+    }
+
+    @Test
+    public void readsTheGlobalStatsOfAStatsFile() throws IOException {
+        File report = temporaryFolder.newFolder("mysimulation-1");
+        write(new File(report, ReportParser.STATS_PATH), "{\"type\":\"GROUP\",\"name\":\"Global Information\","
+                + "\"contents\":{\"req_home\":{\"type\":\"REQUEST\",\"stats\":{\"numberOfRequests\":{\"total\":1}}}},"
+                + "\"stats\":" + GLOBAL_STATS + "}", false);
+
+        assertGlobalStats(ReportParser.readGlobalStats(report));
+    }
+
+    @Test
+    public void readsCompressedFilesInOtherLocations() throws IOException {
+        File report = temporaryFolder.newFolder("mysimulation-1");
+        write(new File(report, "legacy/global_stats.json" + ReportCompressor.SUFFIX), GLOBAL_STATS, true);
+
+        assertGlobalStats(ReportParser.readGlobalStats(report));
+    }
+
+    @Test
+    public void readsTheAssertions() throws IOException {
+        File report = temporaryFolder.newFolder("mysimulation-1");
+        write(new File(report, ReportParser.ASSERTIONS_PATH), ASSERTIONS, false);
+
+        AssertionsData assertions = ReportParser.readAssertions(report);
+
+        assertEquals("MySimulation", assertions.simulation);
+        assertEquals(1, assertions.assertions.size());
+        AssertionData assertion = assertions.assertions.get(0);
+        assertEquals("Global", assertion.requestName);
+        assertEquals("mean response time", assertion.assertionType);
+        assertEquals(Integer.valueOf(42), assertion.values.get(0));
+    }
+
+    @Test
+    public void readsTheStatsOfEachRequest() throws IOException {
+        File report = temporaryFolder.newFolder("mysimulation-1");
+        write(new File(report, ReportParser.STATS_PATH), "{\"type\":\"GROUP\",\"name\":\"Global Information\",\"path\":\"\","
+                + "\"contents\":{"
+                + "\"req_home\":{\"type\":\"REQUEST\",\"name\":\"home\",\"path\":\"home\",\"stats\":{\"numberOfRequests\":{\"total\":10}}},"
+                + "\"group_login\":{\"type\":\"GROUP\",\"name\":\"login\",\"path\":\"login\",\"contents\":{"
+                + "\"req_form\":{\"type\":\"REQUEST\",\"name\":\"form\",\"path\":\"login / form\",\"stats\":{\"numberOfRequests\":{\"total\":5}}}},"
+                + "\"stats\":{\"numberOfRequests\":{\"total\":5}}}},"
+                + "\"stats\":" + GLOBAL_STATS + "}", false);
+
+        Map<String, RequestReport> requests = ReportParser.readRequestStats(report);
+
+        assertEquals(Arrays.asList("home", "login / form"), new ArrayList<String>(requests.keySet()));
+        assertEquals(10, requests.get("home").getNumberOfRequests().getTotal());
+        assertEquals(5, requests.get("login / form").getNumberOfRequests().getTotal());
+    }
+
+    @Test
+    public void returnsNoRequestStatsWithoutAStatsFile() throws IOException {
+        assertEquals(0, ReportParser.readRequestStats(temporaryFolder.newFolder("mysimulation-1")).size());
+    }
+
+    @Test
+    public void returnsNullWhenThereAreNoAssertions() throws IOException {
+        assertNull(ReportParser.readAssertions(temporaryFolder.newFolder("mysimulation-1")));
+    }
+
+    private static void assertGlobalStats(RequestReport report) {
+        assertEquals("Global Information", report.getName());
+        assertEquals(120, report.getNumberOfRequests().getTotal());
+        assertEquals(20, report.getNumberOfRequests().getKO());
+        assertEquals(42, report.getMeanResponseTime().getTotal());
+        assertEquals(90, report.getGroup1().getCount());
+    }
+
+    private static void write(File file, String content, boolean gzip) throws IOException {
+        file.getParentFile().mkdirs();
+        OutputStream os = new FileOutputStream(file);
+        if (gzip) {
+            os = new GZIPOutputStream(os);
+        }
+        try {
+            os.write(content.getBytes("UTF-8"));
+        } finally {
+            os.close();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import hudson.FilePath;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.stub;
+import static org.mockito.Mockito.verify;
+
+public class ReportRendererTest {
+
+    private static final String STATS = "var stats = { \"name\": \"Global Information\" };";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ReportRenderer renderer;
+    private File compressedStats;
+    private StaplerRequest request;
+    private StaplerResponse response;
+    private ByteArrayOutputStream body;
+
+    @Before
+    public void setUp() throws IOException {
+        File report = temporaryFolder.newFolder("mysimulation-1");
+        compressedStats = new File(report, "js/stats.js" + ReportCompressor.SUFFIX);
+        compressedStats.getParentFile().mkdirs();
+        OutputStream out = new GZIPOutputStream(new FileOutputStream(compressedStats));
+        try {
+            out.write(STATS.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+
+        BuildSimulation simulation = new BuildSimulation("mysimulation", null, new FilePath(report));
+        renderer = new ReportRenderer(mock(GatlingBuildAction.class), simulation);
+
+        ServletContext servletContext = mock(ServletContext.class);
+        stub(servletContext.getMimeType("js/stats.js")).toReturn("application/javascript");
+        request = mock(StaplerRequest.class);
+        stub(request.getRestOfPath()).toReturn("/js/stats.js");
+        stub(request.getDateHeader("If-Modified-Since")).toReturn(-1L);
+        stub(request.getServletContext()).toReturn(servletContext);
+
+        body = new ByteArrayOutputStream();
+        response = mock(StaplerResponse.class);
+        stub(response.getOutputStream()).toReturn(new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+        });
+    }
+
+    @Test
+    public void sendsTheCompressedBytesToGzipClients() throws Exception {
+        stub(request.getHeader("Accept-Encoding")).toReturn("gzip, deflate");
+
+        renderer.doSource(request, response);
+
+        assertArrayEquals(Files.readAllBytes(compressedStats.toPath()), body.toByteArray());
+        assertEquals(STATS, gunzip(body.toByteArray()));
+        verify(response).setContentType("application/javascript");
+        verify(response).setHeader("Content-Encoding", "gzip");
+        verify(response).setHeader("Content-Length", Long.toString(compressedStats.length()));
+        verify(response).setDateHeader("Last-Modified", compressedStats.lastModified());
+        verify(response, never()).serveFile(any(StaplerRequest.class), any(InputStream.class), anyLong(), anyLong(), anyString());
+    }
+
+    @Test
+    public void decompressesTheFileForOtherClients() throws Exception {
+        final ByteArrayOutputStream served = new ByteArrayOutputStream();
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                copy((InputStream) invocation.getArguments()[1], served);
+                return null;
+            }
+        }).when(response).serveFile(eq(request), any(InputStream.class), anyLong(), anyLong(), eq("js/stats.js"));
+
+        renderer.doSource(request, response);
+
+        assertEquals(STATS, served.toString("UTF-8"));
+        assertEquals(0, body.size());
+        verify(response, never()).setHeader(eq("Content-Encoding"), anyString());
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        copy(new GZIPInputStream(new ByteArrayInputStream(bytes)), out);
+        return out.toString("UTF-8");
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        try {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+    }
+}
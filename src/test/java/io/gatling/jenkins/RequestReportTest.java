@@ -0,0 +1,126 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import hudson.util.XStream2;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class RequestReportTest {
+
+    @Test
+    public void returnsTheStatisticsThatWereSet() {
+        RequestReport report = new RequestReport();
+        report.setMeanResponseTime(new Statistics(120, 100, 180));
+        report.setPercentiles4(new Statistics(900, 800, 1500));
+
+        assertEquals(120, report.getMeanResponseTime().getTotal());
+        assertEquals(100, report.getMeanResponseTime().getOK());
+        assertEquals(180, report.getMeanResponseTime().getKO());
+        assertEquals(1500, report.getPercentiles4().getKO());
+        assertNull(report.getNumberOfRequests());
+        assertNull(report.getPercentiles3());
+
+        report.setMeanResponseTime(null);
+        assertNull(report.getMeanResponseTime());
+        assertEquals(900, report.getPercentiles4().getTotal());
+    }
+
+    @Test
+    public void returnsTheGroupsThatWereSet() {
+        RequestReport report = new RequestReport();
+        report.setGroup2(new ResponseTimeGroup(new String("800 ms < t < 1200 ms"), 12, 3));
+
+        assertEquals(12, report.getGroup2().getCount());
+        assertEquals(3, report.getGroup2().getPercentage());
+        assertSame("800 ms < t < 1200 ms", report.getGroup2().getName());
+        assertNull(report.getGroup1());
+        assertNull(report.getGroup4());
+    }
+
+    @Test
+    public void returnsReadOnlyStatistics() {
+        RequestReport report = new RequestReport();
+        report.setMeanResponseTime(new Statistics(120, 100, 180));
+
+        try {
+            report.getMeanResponseTime().setTotal(130);
+            fail("the statistics of a report should be read-only");
+        } catch (UnsupportedOperationException expected) {
+            assertEquals(120, report.getMeanResponseTime().getTotal());
+        }
+
+        report.setMeanResponseTime(new Statistics(130, 100, 180));
+        assertEquals(130, report.getMeanResponseTime().getTotal());
+    }
+
+    @Test
+    public void returnsReadOnlyGroups() {
+        RequestReport report = new RequestReport();
+        report.setGroup1(new ResponseTimeGroup("t < 800 ms", 7, 70));
+
+        try {
+            report.getGroup1().setCount(8);
+            fail("the groups of a report should be read-only");
+        } catch (UnsupportedOperationException expected) {
+            assertEquals(7, report.getGroup1().getCount());
+        }
+    }
+
+    @Test
+    public void readsThe95thAnd99thPercentilesAsTheThirdAndFourth() {
+        RequestReport report = new RequestReport();
+        report.setPercentiles3(new Statistics(400, 380, 900));
+        report.setPercentiles99(new Statistics(700, 650, 1200));
+
+        assertEquals(400, report.getPercentiles95().getTotal());
+        assertEquals(700, report.getPercentiles4().getTotal());
+    }
+
+    @Test
+    public void readsTheBuildXmlOfOlderVersions() {
+        XStream2 xstream = new XStream2();
+        xstream.registerConverter(new RequestReport.ConverterImpl());
+        String xml = "<io.gatling.jenkins.RequestReport>"
+                + "<name>Global Information</name>"
+                + "<numberOfRequests><total>10</total><ok>8</ok><ko>2</ko></numberOfRequests>"
+                + "<percentiles95><total>300</total><ok>280</ok><ko>500</ko></percentiles95>"
+                + "<percentiles4><total>600</total><ok>550</ok><ko>900</ko></percentiles4>"
+                + "<group1><name>t &lt; 800 ms</name><count>7</count><percentage>70</percentage></group1>"
+                + "</io.gatling.jenkins.RequestReport>";
+
+        RequestReport report = (RequestReport) xstream.fromXML(xml);
+
+        assertEquals("Global Information", report.getName());
+        assertEquals(2, report.getNumberOfRequests().getKO());
+        // Migration from 1.0.3 to 1.0.4
+        assertEquals(300, report.getPercentiles1().getTotal());
+        assertEquals(600, report.getPercentiles99().getTotal());
+        assertEquals("t < 800 ms", report.getGroup1().getName());
+        assertEquals(70, report.getGroup1().getPercentage());
+        assertNull(report.getGroup2());
+
+        RequestReport copy = (RequestReport) xstream.fromXML(xstream.toXML(report));
+        assertEquals(8, copy.getNumberOfRequests().getOK());
+        assertEquals(300, copy.getPercentiles1().getTotal());
+        assertEquals(550, copy.getPercentiles4().getOK());
+        assertEquals(7, copy.getGroup1().getCount());
+    }
+}
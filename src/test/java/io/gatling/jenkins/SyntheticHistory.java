@@ -0,0 +1,181 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import hudson.Launcher;
+import hudson.Util;
+import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
+import hudson.model.FreeStyleProject;
+import hudson.model.Result;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestBuilder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Creates a job with a long history of Gatling builds. Each build writes the
+ * Gatling reports of its simulations to the workspace, with realistic global
+ * and per request statistics and assertions, and the {@link GatlingPublisher}
+ * archives them as it does for a real Gatling run, which also writes the
+ * trend index and the request statistics files of the job.
+ */
+class SyntheticHistory {
+
+    static final String REQUEST_PREFIX = "request ";
+
+    private static final int REQUESTS_PER_SIMULATION = 10;
+    private static final int ASSERTIONS_PER_SIMULATION = 5;
+
+    private final JenkinsRule j;
+    private final int builds;
+    private final int simulations;
+
+    SyntheticHistory(JenkinsRule j, int builds, int simulations) {
+        this.j = j;
+        this.builds = builds;
+        this.simulations = simulations;
+    }
+
+    FreeStyleProject createProject(String name) throws Exception {
+        FreeStyleProject project = j.createFreeStyleProject(name);
+        project.getBuildersList().add(new ReportWriter());
+        project.getPublishersList().add(new GatlingPublisher(true));
+        for (int i = 1; i <= builds; i++) {
+            project.scheduleBuild2(0).get();
+        }
+        return project;
+    }
+
+    /**
+     * Writes the reports of a build to the workspace, as a Gatling run would.
+     */
+    private class ReportWriter extends TestBuilder {
+
+        @Override
+        public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
+                throws InterruptedException, IOException {
+            File results = new File(build.getWorkspace().getRemote(), "results");
+            // the reports of the previous builds were archived already
+            Util.deleteRecursive(results);
+            int buildNumber = build.getNumber();
+            boolean failedAssertions = false;
+            for (int s = 0; s < simulations; s++) {
+                String simulationName = "Simulation" + s;
+                File directory = new File(results, simulationName + "-" + build.getTimeInMillis());
+                write(new File(directory, "index.html"), "<html><body>" + simulationName + "</body></html>");
+
+                long base = 100 + 20 * s + buildNumber / 50 + (buildNumber * 31 + s * 17) % 40;
+                StringBuilder globalStats = new StringBuilder();
+                stats(globalStats, "Global Information", base, 10000 + 100 * s, (buildNumber + s) % 7 == 0 ? 20 : 1000);
+                write(new File(directory, ReportParser.GLOBAL_STATS_PATH), globalStats.toString());
+
+                StringBuilder stats = new StringBuilder("{\"type\":\"GROUP\",\"name\":\"Global Information\",\"path\":\"\",")
+                        .append("\"pathFormatted\":\"group_missing-name\",\"stats\":").append(globalStats)
+                        .append(",\"contents\":{");
+                for (int r = 0; r < REQUESTS_PER_SIMULATION; r++) {
+                    String requestName = REQUEST_PREFIX + r;
+                    stats.append(r > 0 ? "," : "").append("\"req_request-").append(r).append("\":{\"type\":\"REQUEST\",")
+                            .append("\"name\":\"").append(requestName).append("\",\"path\":\"").append(requestName)
+                            .append("\",\"pathFormatted\":\"req_request-").append(r).append("\",\"stats\":");
+                    stats(stats, requestName, base / 2 + 10 * r + (buildNumber * 7 + r) % 20,
+                            1000 + 10 * s, (buildNumber + r) % 11 == 0 ? 20 : 1000);
+                    stats.append('}');
+                }
+                stats.append("}}");
+                write(new File(directory, ReportParser.STATS_PATH), stats.toString());
+
+                StringBuilder assertions = new StringBuilder("{\"simulation\":\"").append(simulationName)
+                        .append("\",\"simulationId\":\"").append(directory.getName()).append("\",\"start\":")
+                        .append(build.getTimeInMillis()).append(",\"description\":\"\",\"scenarios\":[\"Users\"],\"assertions\":[");
+                for (int a = 0; a < ASSERTIONS_PER_SIMULATION; a++) {
+                    // one build in ten fails an assertion
+                    boolean passed = (buildNumber + a) % 50 != 0;
+                    failedAssertions |= !passed;
+                    assertion(assertions.append(a > 0 ? "," : ""), REQUEST_PREFIX + a,
+                            a % 2 == 0 ? "95th percentile of response time" : "mean of response time",
+                            500 + (buildNumber * 13 + a) % 600, passed);
+                }
+                assertions.append("]}");
+                write(new File(directory, ReportParser.ASSERTIONS_PATH), assertions.toString());
+            }
+            if (failedAssertions) {
+                // as the Gatling plugins of the build tools do
+                build.setResult(Result.UNSTABLE);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Appends the statistics of a request or of a whole simulation, as found in stats.json.
+     *
+     * @param base the mean response time
+     * @param koRatio the number of requests per failed request
+     */
+    private static void stats(StringBuilder json, String name, long base, long requests, long koRatio) {
+        long ko = requests / koRatio;
+        long fast = requests * 8 / 10;
+        long moderate = requests / 10;
+        json.append("{\"name\":\"").append(name).append('"');
+        statistics(json, "numberOfRequests", requests, requests - ko, ko);
+        statistics(json, "minResponseTime", base / 10, base / 10, base / 5);
+        statistics(json, "maxResponseTime", base * 20, base * 15, base * 20);
+        statistics(json, "meanResponseTime", base, base - 5, base * 3);
+        statistics(json, "standardDeviation", base / 2, base / 2, base);
+        statistics(json, "percentiles1", base * 2, base * 2, base * 5);
+        statistics(json, "percentiles2", base * 3, base * 3, base * 6);
+        statistics(json, "percentiles3", base * 4, base * 4, base * 8);
+        statistics(json, "percentiles4", base * 6, base * 6, base * 10);
+        group(json, "group1", "t < 800 ms", fast, 80);
+        group(json, "group2", "800 ms < t < 1200 ms", moderate, 10);
+        group(json, "group3", "t > 1200 ms", requests - fast - moderate - ko, 9);
+        group(json, "group4", "failed", ko, 1);
+        statistics(json, "meanNumberOfRequestsPerSecond", 50, 49, 1);
+        json.append('}');
+    }
+
+    private static void statistics(StringBuilder json, String name, long total, long ok, long ko) {
+        json.append(",\"").append(name).append("\":{\"total\":").append(total)
+                .append(",\"ok\":").append(ok).append(",\"ko\":").append(ko).append('}');
+    }
+
+    private static void group(StringBuilder json, String name, String label, long count, int percentage) {
+        json.append(",\"").append(name).append("\":{\"name\":\"").append(label)
+                .append("\",\"count\":").append(count).append(",\"percentage\":").append(percentage).append('}');
+    }
+
+    private static void assertion(StringBuilder json, String requestName, String target, int value, boolean passed) {
+        json.append("{\"path\":\"").append(requestName).append("\",\"target\":\"").append(target)
+                .append("\",\"condition\":\"is less than\",\"conditionValues\":[1000],\"values\":[").append(value)
+                .append("],\"result\":").append(passed).append(",\"message\":\"").append(requestName).append(": ")
+                .append(target).append(" is less than 1000\"}");
+    }
+
+    private static void write(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins;
+
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.util.RunList;
+import io.gatling.jenkins.chart.ChartMetric;
+import io.gatling.jenkins.trend.TrendIndex;
+import io.gatling.jenkins.trend.TrendMetric;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+import org.mockito.ArgumentCaptor;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Collections;
+
+import static io.gatling.jenkins.PluginConstants.MAX_BUILDS_TO_DISPLAY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.stub;
+import static org.mockito.Mockito.verify;
+
+public class TrendApiTest {
+
+    private static final String ETAG = "\"12-15a3-2c0\"";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Job<?, ?> job;
+    private TrendApi api;
+
+    @Before
+    public void setUp() {
+        job = mock(Job.class);
+        stub(job.getRootDir()).toReturn(temporaryFolder.getRoot());
+        stub(job.getFullName()).toReturn("myjob");
+        RunList runList = mock(RunList.class);
+        stub(runList.iterator()).toReturn(Collections.emptyIterator());
+        //noinspection unchecked
+        stub(job.getBuilds()).toReturn(runList);
+        api = new TrendApi(new GatlingProjectAction(job));
+    }
+
+    @Test
+    public void matchesTheETagOfTheTrendData() {
+        assertTrue(TrendApi.matches(ETAG, ETAG));
+        assertTrue(TrendApi.matches("W/" + ETAG, ETAG));
+        assertTrue(TrendApi.matches("\"11-15a3-2a0\", " + ETAG, ETAG));
+        assertTrue(TrendApi.matches("*", ETAG));
+    }
+
+    @Test
+    public void doesNotMatchOtherETags() {
+        assertFalse(TrendApi.matches(null, ETAG));
+        assertFalse(TrendApi.matches("\"11-15a3-2a0\"", ETAG));
+        assertFalse(TrendApi.matches("12-15a3-2c0", ETAG));
+    }
+
+    @Test
+    public void resolvesMetricsByIdOrAlias() {
+        assertEquals(ChartMetric.PERCENTILE_3, ChartMetric.fromId("p95"));
+        assertEquals(ChartMetric.PERCENTILE_3, ChartMetric.fromId("p3"));
+        assertEquals(ChartMetric.KO_PERCENTAGE, ChartMetric.fromId("ko"));
+        assertNull(ChartMetric.fromId("p42"));
+    }
+
+    @Test
+    public void answersNotModifiedWhenTheETagMatches() throws IOException {
+        TrendIndex.forJob(job).add(run(1));
+        StringWriter body = new StringWriter();
+        String etag = getETag(trend(null, body));
+        assertTrue(body.toString().contains("\"series\""));
+
+        body = new StringWriter();
+        StaplerResponse response = trend(etag, body);
+
+        assertEquals(etag, getETag(response));
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response, never()).getWriter();
+        assertEquals("", body.toString());
+    }
+
+    @Test
+    public void changesTheETagWhenABuildIsIndexedOrRemoved() throws IOException {
+        TrendIndex index = TrendIndex.forJob(job);
+        index.add(run(1));
+        String first = getETag(trend(null, new StringWriter()));
+
+        index.add(run(2));
+        String second = getETag(trend(first, new StringWriter()));
+        assertFalse(second.equals(first));
+
+        index.remove(2);
+        StaplerResponse response = trend(second, new StringWriter());
+        assertFalse(getETag(response).equals(second));
+        verify(response, never()).setStatus(anyInt());
+    }
+
+    @Test
+    public void keepsTheBuildsWithinTheTrendWindow() {
+        assertEquals(MAX_BUILDS_TO_DISPLAY, TrendApi.getBuilds(0));
+        assertEquals(MAX_BUILDS_TO_DISPLAY > 0 ? Math.min(30, MAX_BUILDS_TO_DISPLAY) : 30, TrendApi.getBuilds(30));
+        if (MAX_BUILDS_TO_DISPLAY > 0) {
+            assertEquals(MAX_BUILDS_TO_DISPLAY, TrendApi.getBuilds(Integer.MAX_VALUE));
+        }
+    }
+
+    private StaplerResponse trend(String ifNoneMatch, StringWriter body) throws IOException {
+        StaplerRequest request = mock(StaplerRequest.class);
+        stub(request.getHeader("If-None-Match")).toReturn(ifNoneMatch);
+        StaplerResponse response = mock(StaplerResponse.class);
+        stub(response.getWriter()).toReturn(new PrintWriter(body));
+        api.doTrend(request, response, "mean", null, 0, 0);
+        return response;
+    }
+
+    private static String getETag(StaplerResponse response) {
+        ArgumentCaptor<String> etag = ArgumentCaptor.forClass(String.class);
+        verify(response).setHeader(eq("ETag"), etag.capture());
+        return etag.getValue();
+    }
+
+    private Run<?, ?> run(int number) {
+        long[] values = new long[TrendMetric.values().length];
+        values[TrendMetric.MEAN_RESPONSE_TIME.ordinal()] = 100 + number;
+        GatlingBuildAction action = mock(GatlingBuildAction.class);
+        stub(action.getSimulationHeaders()).toReturn(
+                Collections.singletonList(new SimulationHeader("MySimulation", "mysimulation-" + number, values)));
+        Run<?, ?> run = mock(Run.class);
+        stub(run.getNumber()).toReturn(number);
+        stub(run.getTimeInMillis()).toReturn(1000L * number);
+        stub(run.getAction(GatlingBuildAction.class)).toReturn(action);
+        return run;
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.chart;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ChangePointDetectorTest {
+
+	@Test
+	public void findsNothingInAFlatSeries() {
+		assertEquals(Collections.<Integer>emptyList(), ChangePointDetector.detect(noisy(new double[40], 1000, 20, 1)));
+	}
+
+	@Test
+	public void findsASingleShift() {
+		double[] values = new double[40];
+		Arrays.fill(values, 20, 40, 300);
+
+		assertEquals(Arrays.asList(20), ChangePointDetector.detect(noisy(values, 1000, 20, 2)));
+	}
+
+	@Test
+	public void findsSeveralShifts() {
+		double[] values = new double[60];
+		Arrays.fill(values, 15, 40, 500);
+		Arrays.fill(values, 40, 60, -200);
+
+		assertEquals(Arrays.asList(15, 40), ChangePointDetector.detect(noisy(values, 1000, 20, 3)));
+	}
+
+	@Test
+	public void ignoresSmallRelativeShifts() {
+		double[] values = new double[40];
+		Arrays.fill(values, 20, 40, 10);
+
+		assertEquals(Collections.<Integer>emptyList(), ChangePointDetector.detect(noisy(values, 1000, 0, 4)));
+	}
+
+	@Test
+	public void needsEnoughPointsOnEachSide() {
+		assertEquals(Collections.<Integer>emptyList(), ChangePointDetector.detect(new double[] {1, 1, 1, 9, 9}));
+	}
+
+	private static double[] noisy(double[] shifts, double base, double noise, long seed) {
+		Random random = new Random(seed);
+		double[] values = new double[shifts.length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = base + shifts[i] + random.nextGaussian() * noise;
+		}
+		return values;
+	}
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.chart;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DownsamplingTest {
+
+    @Test
+    public void keepsSmallSeries() {
+        LongSerie serie = serie(10);
+
+        assertSame(serie, Downsampling.largestTriangleThreeBuckets(serie, 10));
+        assertSame(serie, Downsampling.largestTriangleThreeBuckets(serie, 0));
+    }
+
+    @Test
+    public void reducesToTheTargetSizeKeepingTheEnds() {
+        LongSerie serie = serie(1000);
+
+        LongSerie sampled = Downsampling.largestTriangleThreeBuckets(serie, 50);
+
+        assertEquals(50, sampled.size());
+        assertEquals(1000, sampled.getX(0));
+        assertEquals(1, sampled.getX(49));
+        for (int i = 1; i < sampled.size(); i++) {
+            assertTrue(sampled.getX(i) < sampled.getX(i - 1));
+        }
+    }
+
+    @Test
+    public void keepsTheSpikes() {
+        LongSerie serie = new LongSerie();
+        for (int x = 1; x <= 1000; x++) {
+            serie.addPoint(x, x == 500 ? 10000 : 100);
+        }
+
+        LongSerie sampled = Downsampling.largestTriangleThreeBuckets(serie, 20);
+
+        boolean spike = false;
+        for (int i = 0; i < sampled.size(); i++) {
+            spike |= sampled.getX(i) == 500 && sampled.getY(i) == 10000;
+        }
+        assertTrue(spike);
+    }
+
+    /**
+     * @return a series of build numbers, newest first, like the series of a graph
+     */
+    private static LongSerie serie(int size) {
+        LongSerie serie = new LongSerie();
+        for (int x = size; x > 0; x--) {
+            serie.addPoint(x, (x * 37) % 101);
+        }
+        return serie;
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.chart;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class SerieTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void growsBeyondItsInitialCapacity() {
+        LongSerie serie = new LongSerie(1);
+        for (int i = 0; i < 100; i++) {
+            serie.addPoint(i, i * 10L);
+        }
+
+        assertEquals(100, serie.size());
+        assertEquals(99, serie.getX(99));
+        assertEquals(990L, serie.getY(99));
+    }
+
+    @Test
+    public void writesPairsOfXAndY() throws IOException {
+        LongSerie longSerie = new LongSerie();
+        longSerie.addPoint(3, 42L);
+        longSerie.addPoint(2, Long.MAX_VALUE);
+        DoubleSerie doubleSerie = new DoubleSerie();
+        doubleSerie.addPoint(1, 0.5);
+
+        assertEquals("[[3,42],[2," + Long.MAX_VALUE + "]]", mapper.writeValueAsString(longSerie));
+        assertEquals("[[[1,0.5]],[]]", mapper.writeValueAsString(Arrays.asList(doubleSerie, new LongSerie())));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsIndicesBeyondItsSize() {
+        new LongSerie().getY(0);
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.chart;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class SparklineTest {
+
+	private static final String SVG_START = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"100\" height=\"20\" viewBox=\"0 0 100 20\">"
+			+ "<polyline fill=\"none\" stroke=\"#000\" stroke-width=\"1.5\" points=\"";
+
+	@Test
+	public void scalesTheValuesFromZeroToTheHighest() {
+		assertEquals(SVG_START + "1.0,19.0 50.0,10.0 99.0,1.0\"/></svg>",
+				Sparkline.toSvg(new long[] {0, 50, 100}, "#000"));
+	}
+
+	@Test
+	public void drawsASingleBuildAsAFlatLine() {
+		assertEquals(SVG_START + "1.0,1.0 99.0,1.0\"/></svg>",
+				Sparkline.toSvg(new long[] {42}, "#000"));
+	}
+
+	@Test
+	public void drawsNothingWithoutBuilds() {
+		assertNull(Sparkline.toSvg(new long[0], "#000"));
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.trend;
+
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.util.RunList;
+import io.gatling.jenkins.GatlingBuildAction;
+import io.gatling.jenkins.SimulationHeader;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.stub;
+
+public class LastBuildMarkerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Job<?, ?> job;
+    private File marker;
+
+    @Before
+    public void setUp() {
+        job = mock(Job.class);
+        stub(job.getRootDir()).toReturn(temporaryFolder.getRoot());
+        stub(job.getFullName()).toReturn("myjob");
+        RunList runList = mock(RunList.class);
+        stub(runList.iterator()).toReturn(Collections.emptyIterator());
+        //noinspection unchecked
+        stub(job.getBuilds()).toReturn(runList);
+        marker = new File(temporaryFolder.getRoot(), LastBuildMarker.FILE_NAME);
+    }
+
+    @Test
+    public void isNotPresentWithoutMarkerNorIndex() {
+        assertFalse(LastBuildMarker.isPresent(job));
+        assertFalse(new File(temporaryFolder.getRoot(), TrendIndex.FILE_NAME).exists());
+    }
+
+    @Test
+    public void readsTheMarkerFile() throws IOException {
+        Files.write(marker.toPath(), "7".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(7, LastBuildMarker.get(job));
+        assertTrue(LastBuildMarker.isPresent(job));
+    }
+
+    @Test
+    public void keepsTheLastUpdatedBuild() throws IOException {
+        LastBuildMarker.update(run(3));
+        LastBuildMarker.update(run(2));
+
+        assertEquals(3, LastBuildMarker.get(job));
+        assertTrue(LastBuildMarker.isPresent(job));
+        assertEquals("3", new String(Files.readAllBytes(marker.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void findsTheLastBuildInTheIndexOnceItIsDeleted() throws IOException {
+        TrendIndex.forJob(job).add(run(2));
+        LastBuildMarker.update(run(2));
+        Run<?, ?> third = run(3);
+        TrendIndex.forJob(job).add(third);
+        LastBuildMarker.update(third);
+
+        LastBuildMarker.invalidate(run(2));
+        assertEquals(3, LastBuildMarker.get(job));
+
+        TrendIndex.forJob(job).remove(3);
+        LastBuildMarker.invalidate(third);
+        assertFalse(marker.exists());
+        assertEquals(2, LastBuildMarker.get(job));
+        assertTrue(LastBuildMarker.isPresent(job));
+    }
+
+    private Run<?, ?> run(int number) {
+        long[] values = new long[TrendMetric.values().length];
+        GatlingBuildAction action = mock(GatlingBuildAction.class);
+        stub(action.getSimulationHeaders()).toReturn(
+                Collections.singletonList(new SimulationHeader("MySimulation", "mysimulation-" + number, values)));
+        Run run = mock(Run.class);
+        stub(run.getParent()).toReturn(job);
+        stub(run.getNumber()).toReturn(number);
+        stub(run.getTimeInMillis()).toReturn(1000L * number);
+        stub(run.getAction(GatlingBuildAction.class)).toReturn(action);
+        return run;
+    }
+}
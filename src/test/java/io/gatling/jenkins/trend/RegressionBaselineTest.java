@@ -0,0 +1,140 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.trend;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RegressionBaselineTest {
+
+    private static final double THRESHOLD = RegressionBaseline.DEFAULT_THRESHOLD;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void doesNotCheckBeforeTheBaselineHasEnoughBuilds() throws IOException {
+        RegressionBaseline baseline = new RegressionBaseline(file());
+        for (int i = 0; i < RegressionBaseline.MIN_BUILDS; i++) {
+            assertTrue(baseline.check("MySimulation", values(1000 * (i + 1), 100), THRESHOLD, true).isEmpty());
+        }
+    }
+
+    @Test
+    public void flagsALatencyRegression() throws IOException {
+        RegressionBaseline baseline = stableBaseline(file());
+
+        List<Regression> regressions = baseline.check("MySimulation", values(2000, 100), THRESHOLD, true);
+
+        assertEquals(1, regressions.size());
+        Regression regression = regressions.get(0);
+        assertEquals("MySimulation", regression.getSimulationName());
+        assertEquals(TrendMetric.MEAN_RESPONSE_TIME, regression.getMetric());
+        assertEquals(2000, regression.getValue());
+    }
+
+    @Test
+    public void flagsAThroughputRegression() throws IOException {
+        RegressionBaseline baseline = stableBaseline(file());
+
+        List<Regression> regressions = baseline.check("MySimulation", values(1000, 50), THRESHOLD, true);
+
+        assertEquals(1, regressions.size());
+        assertEquals(TrendMetric.REQUESTS_PER_SECOND, regressions.get(0).getMetric());
+    }
+
+    @Test
+    public void ignoresChangesWithinTheNoise() throws IOException {
+        RegressionBaseline baseline = stableBaseline(file());
+
+        assertTrue(baseline.check("MySimulation", values(1040, 98), THRESHOLD, true).isEmpty());
+        assertTrue(baseline.check("OtherSimulation", values(5000, 1), THRESHOLD, true).isEmpty());
+    }
+
+    @Test
+    public void keepsRegressionsOutOfTheBaseline() throws IOException {
+        File file = file();
+        RegressionBaseline baseline = stableBaseline(file);
+
+        assertEquals(1, baseline.check("MySimulation", values(2000, 100), THRESHOLD, true).size());
+        assertEquals(1, baseline.check("MySimulation", values(2000, 100), THRESHOLD, true).size());
+        // the baseline is read back from its file
+        assertEquals(1, new RegressionBaseline(file).check("MySimulation", values(2000, 100), THRESHOLD, true).size());
+    }
+
+    @Test
+    public void acceptsALastingStepChange() throws IOException {
+        RegressionBaseline baseline = stableBaseline(file());
+
+        for (int i = 0; i < RegressionBaseline.ACCEPTED_REGRESSIONS; i++) {
+            assertEquals(1, baseline.check("MySimulation", values(2000 + 10 * i, 100), THRESHOLD, true).size());
+        }
+        // the new level is the baseline, read back from its file
+        baseline = new RegressionBaseline(file());
+        assertTrue(baseline.check("MySimulation", values(2010, 100), THRESHOLD, true).isEmpty());
+        assertEquals(1, baseline.check("MySimulation", values(4000, 100), THRESHOLD, true).size());
+    }
+
+    @Test
+    public void restartsTheStepChangeAfterANormalBuild() throws IOException {
+        RegressionBaseline baseline = stableBaseline(file());
+
+        for (int i = 1; i < RegressionBaseline.ACCEPTED_REGRESSIONS; i++) {
+            assertEquals(1, baseline.check("MySimulation", values(2000, 100), THRESHOLD, true).size());
+        }
+        assertTrue(baseline.check("MySimulation", values(1000, 100), THRESHOLD, true).isEmpty());
+        assertEquals(1, baseline.check("MySimulation", values(2000, 100), THRESHOLD, true).size());
+    }
+
+    @Test
+    public void ignoresTheBuildsThatDontUpdateTheBaseline() throws IOException {
+        RegressionBaseline baseline = stableBaseline(file());
+
+        for (int i = 0; i < RegressionBaseline.ACCEPTED_REGRESSIONS; i++) {
+            assertEquals(1, baseline.check("MySimulation", values(2000, 100), THRESHOLD, false).size());
+        }
+        assertEquals(1, baseline.check("MySimulation", values(2000, 100), THRESHOLD, true).size());
+        assertTrue(new RegressionBaseline(file()).check("OtherSimulation", values(5000, 1), THRESHOLD, false).isEmpty());
+    }
+
+    private File file() {
+        return new File(temporaryFolder.getRoot(), RegressionBaseline.FILE_NAME);
+    }
+
+    private static RegressionBaseline stableBaseline(File file) throws IOException {
+        RegressionBaseline baseline = new RegressionBaseline(file);
+        long[] meanResponseTimes = {1000, 1020, 980, 1010, 990, 1000};
+        for (long meanResponseTime : meanResponseTimes) {
+            assertTrue(baseline.check("MySimulation", values(meanResponseTime, 100), THRESHOLD, true).isEmpty());
+        }
+        return baseline;
+    }
+
+    private static long[] values(long meanResponseTime, long requestsPerSecond) {
+        long[] values = new long[TrendMetric.values().length];
+        values[TrendMetric.MEAN_RESPONSE_TIME.ordinal()] = meanResponseTime;
+        values[TrendMetric.REQUESTS_PER_SECOND.ordinal()] = requestsPerSecond;
+        return values;
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.trend;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReportPageTest {
+
+    private final List<TrendRecord> records = new ArrayList<TrendRecord>();
+
+    @Test
+    public void listsTheLastBuildsFirst() {
+        addBuilds(1, 5);
+
+        ReportPage page = ReportPage.of(records, 0, 2);
+
+        assertEquals(2, page.getEntries().size());
+        assertEquals(5, page.getEntries().get(0).getBuildNumber());
+        assertEquals(Arrays.asList("sim1", "sim2"), page.getEntries().get(0).getSimulationNames());
+        assertEquals(4, page.getEntries().get(1).getBuildNumber());
+        assertEquals(4, page.getNext());
+    }
+
+    @Test
+    public void continuesFromTheCursor() {
+        addBuilds(1, 5);
+
+        ReportPage page = ReportPage.of(records, 4, 2);
+
+        assertEquals(3, page.getEntries().get(0).getBuildNumber());
+        assertEquals(2, page.getEntries().get(1).getBuildNumber());
+        assertEquals(2, page.getNext());
+
+        ReportPage last = ReportPage.of(records, page.getNext(), 2);
+
+        assertEquals(1, last.getEntries().size());
+        assertEquals(1, last.getEntries().get(0).getBuildNumber());
+        assertEquals(0, last.getNext());
+    }
+
+    @Test
+    public void endsWhenTheLastPageIsFull() {
+        addBuilds(1, 2);
+
+        assertEquals(0, ReportPage.of(records, 0, 2).getNext());
+    }
+
+    @Test
+    public void handlesCursorsOfDeletedBuilds() {
+        addBuilds(1, 2);
+        addBuilds(5, 6);
+
+        ReportPage page = ReportPage.of(records, 4, 10);
+
+        assertEquals(2, page.getEntries().get(0).getBuildNumber());
+        assertEquals(2, page.getEntries().size());
+    }
+
+    @Test
+    public void isEmptyWithoutRecords() {
+        ReportPage page = ReportPage.of(Collections.<TrendRecord>emptyList(), 0, 20);
+
+        assertTrue(page.getEntries().isEmpty());
+        assertEquals(0, page.getNext());
+    }
+
+    private void addBuilds(int from, int to) {
+        for (int buildNumber = from; buildNumber <= to; buildNumber++) {
+            records.add(new TrendRecord(buildNumber, buildNumber * 1000L, "sim1", new long[0]));
+            records.add(new TrendRecord(buildNumber, buildNumber * 1000L, "sim2", new long[0]));
+        }
+    }
+}
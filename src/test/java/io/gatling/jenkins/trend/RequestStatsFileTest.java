@@ -0,0 +1,90 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.trend;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class RequestStatsFileTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void readsTheStatsOfOneRequest() throws IOException {
+        File file = write();
+
+        TrendRecord record = RequestStatsFile.read(file, "MySimulation", "login / form");
+
+        assertEquals(7, record.getBuildNumber());
+        assertEquals(1000L, record.getTimestamp());
+        assertEquals("login / form", record.getSimulationName());
+        assertEquals(5, record.get(TrendMetric.REQUESTS));
+        assertEquals(150, record.get(TrendMetric.MEAN_RESPONSE_TIME));
+    }
+
+    @Test
+    public void returnsNullForAnUnknownRequest() throws IOException {
+        File file = write();
+
+        assertNull(RequestStatsFile.read(file, "MySimulation", "logout"));
+        assertNull(RequestStatsFile.read(file, "OtherSimulation", "login / form"));
+        assertNull(RequestStatsFile.read(new File(temporaryFolder.getRoot(), "missing"), "MySimulation", "home"));
+    }
+
+    @Test
+    public void readsTheRequestNamesOfOneSimulation() throws IOException {
+        File file = write();
+
+        assertEquals(Arrays.asList("search"), RequestStatsFile.readRequestNames(file, "OtherSimulation"));
+        assertEquals(Arrays.asList("home", "login / form"), RequestStatsFile.readRequestNames(file, "MySimulation"));
+        assertEquals(Collections.<String>emptyList(), RequestStatsFile.readRequestNames(file, "UnknownSimulation"));
+    }
+
+    private File write() throws IOException {
+        Map<String, long[]> other = new LinkedHashMap<String, long[]>();
+        other.put("search", values(1, 10));
+        Map<String, long[]> requests = new LinkedHashMap<String, long[]>();
+        requests.put("home", values(10, 50));
+        requests.put("login / form", values(5, 150));
+        Map<String, Map<String, long[]>> statsBySimulation = new LinkedHashMap<String, Map<String, long[]>>();
+        statsBySimulation.put("OtherSimulation", other);
+        statsBySimulation.put("MySimulation", requests);
+
+        File file = new File(temporaryFolder.getRoot(), RequestStatsFile.FILE_NAME);
+        RequestStatsFile.write(file, 7, 1000L, statsBySimulation);
+        return file;
+    }
+
+    private static long[] values(long requests, long meanResponseTime) {
+        long[] values = new long[TrendMetric.values().length];
+        values[TrendMetric.REQUESTS.ordinal()] = requests;
+        values[TrendMetric.MEAN_RESPONSE_TIME.ordinal()] = meanResponseTime;
+        return values;
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright 2011-2012 eBusiness Information, Groupe Excilys (www.excilys.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * 		http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gatling.jenkins.trend;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TrendIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = new File(temporaryFolder.newFolder("job"), TrendIndex.FILE_NAME);
+    }
+
+    @Test
+    public void appendedRecordsAreReadBackSortedByBuildNumber() throws IOException {
+        TrendIndex index = new TrendIndex(file, null);
+        index.append(Arrays.asList(record(2, "sim1", 20), record(2, "sim2", 21)));
+        index.append(Arrays.asList(record(1, "sim1", 10)));
+
+        List<TrendRecord> records = new TrendIndex(file, null).getRecords();
+
+        assertEquals(3, records.size());
+        assertEquals(1, records.get(0).getBuildNumber());
+        assertEquals(10, records.get(0).get(TrendMetric.MEAN_RESPONSE_TIME));
+        assertEquals("sim2", records.get(2).getSimulationName());
+        assertEquals(21, records.get(2).get(TrendMetric.MEAN_RESPONSE_TIME));
+        assertEquals(1000L * 2, records.get(2).getTimestamp());
+    }
+
+    @Test
+    public void removingABuildCompactsTheIndex() throws IOException {
+        TrendIndex index = new TrendIndex(file, null);
+        index.append(Arrays.asList(record(1, "sim1", 10), record(2, "sim1", 20), record(3, "sim1", 30)));
+        long length = file.length();
+        String revision = index.getRevision();
+
+        index.remove(2);
+
+        assertTrue(file.length() < length);
+        assertFalse(revision.equals(index.getRevision()));
+        List<TrendRecord> records = new TrendIndex(file, null).getRecords();
+        assertEquals(2, records.size());
+        assertEquals(1, records.get(0).getBuildNumber());
+        assertEquals(3, records.get(1).getBuildNumber());
+    }
+
+    @Test
+    public void ignoresAnIncompleteLastRecord() throws IOException {
+        new TrendIndex(file, null).append(Arrays.asList(record(1, "sim1", 10)));
+        FileOutputStream out = new FileOutputStream(file, true);
+        try {
+            out.write(new byte[] {0, 0, 0, 2, 0});
+        } finally {
+            out.close();
+        }
+
+        TrendIndex index = new TrendIndex(file, null);
+        assertEquals(1, index.getRecords().size());
+
+        index.append(Arrays.asList(record(2, "sim1", 20)));
+        List<TrendRecord> records = new TrendIndex(file, null).getRecords();
+        assertEquals(2, records.size());
+        assertEquals(20, records.get(1).get(TrendMetric.MEAN_RESPONSE_TIME));
+    }
+
+    @Test
+    public void metricsMissingFromOlderRecordsAreZero() throws IOException {
+        TrendIndex index = new TrendIndex(file, null);
+        index.append(Arrays.asList(new TrendRecord(1, 1000L, "sim1", new long[] {5})));
+
+        TrendRecord record = new TrendIndex(file, null).getRecords().get(0);
+
+        assertEquals(5, record.get(TrendMetric.values()[0]));
+        assertEquals(0, record.get(TrendMetric.GROUP_4));
+    }
+
+    @Test
+    public void replacesAnUnreadableIndex() throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write("not an index".getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+
+        TrendIndex index = new TrendIndex(file, null);
+
+        assertTrue(index.getRecords().isEmpty());
+        index.append(Arrays.asList(record(1, "sim1", 10)));
+        assertEquals(1, new TrendIndex(file, null).getRecords().size());
+    }
+
+    private static TrendRecord record(int buildNumber, String simulationName, long meanResponseTime) {
+        long[] values = new long[TrendMetric.values().length];
+        values[TrendMetric.MEAN_RESPONSE_TIME.ordinal()] = meanResponseTime;
+        return new TrendRecord(buildNumber, 1000L * buildNumber, simulationName, values);
+    }
+}